@@ -0,0 +1,91 @@
+package com.example.Student_Management_System.benchmark;
+
+import com.example.Student_Management_System.dto.CourseRegistrationResponseDTO;
+import com.example.Student_Management_System.dto.CourseResponseDTO;
+import com.example.Student_Management_System.dto.CursorPageResponseDTO;
+import com.example.Student_Management_System.dto.StudentResponseDTO;
+import com.example.Student_Management_System.enums.RegistrationStatus;
+import com.example.Student_Management_System.service.StudentIdAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialisation of the list responses: a page of students, a page of courses and a
+ * student's registered courses. Writers are resolved once up front, as the message converter
+ * caches its serializers after the first request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DtoSerializationBenchmark {
+
+    // The default and maximum page sizes of the list endpoints
+    @Param({"50", "500"})
+    public int rows;
+
+    private ObjectWriter studentPageWriter;
+    private ObjectWriter coursePageWriter;
+    private ObjectWriter registrationListWriter;
+
+    private CursorPageResponseDTO<StudentResponseDTO> studentPage;
+    private CursorPageResponseDTO<CourseResponseDTO> coursePage;
+    private List<CourseRegistrationResponseDTO> registrations;
+
+    @Setup
+    public void setUp() {
+        JsonMapper mapper = JsonMapper.builder().build();
+        studentPageWriter = mapper.writerFor(new TypeReference<CursorPageResponseDTO<StudentResponseDTO>>() { });
+        coursePageWriter = mapper.writerFor(new TypeReference<CursorPageResponseDTO<CourseResponseDTO>>() { });
+        registrationListWriter = mapper.writerFor(new TypeReference<List<CourseRegistrationResponseDTO>>() { });
+
+        LocalDateTime now = LocalDateTime.now();
+        List<StudentResponseDTO> students = new ArrayList<>(rows);
+        List<CourseResponseDTO> courses = new ArrayList<>(rows);
+        registrations = new ArrayList<>(rows);
+        for (long i = 1; i <= rows; i++) {
+            students.add(new StudentResponseDTO(i, "First" + i, "Last" + i, "student" + i + "@example.com",
+                    StudentIdAllocator.format(i), 12));
+            courses.add(new CourseResponseDTO(i, "CS" + (100 + i), "Course " + i, "Description of course " + i,
+                    3, 100, 40, false, 60));
+            registrations.add(new CourseRegistrationResponseDTO(i, "CS" + (100 + i), "Course " + i,
+                    "Description of course " + i, 3, now, RegistrationStatus.REGISTERED, null));
+        }
+        studentPage = new CursorPageResponseDTO<>(students, rows, true, (long) rows);
+        coursePage = new CursorPageResponseDTO<>(courses, rows, true, (long) rows);
+    }
+
+    @Benchmark
+    public byte[] studentPage() {
+        return studentPageWriter.writeValueAsBytes(studentPage);
+    }
+
+    @Benchmark
+    public byte[] coursePage() {
+        return coursePageWriter.writeValueAsBytes(coursePage);
+    }
+
+    @Benchmark
+    public byte[] registeredCourses() {
+        return registrationListWriter.writeValueAsBytes(registrations);
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.Student_Management_System.benchmark;
+
+import com.example.Student_Management_System.security.JwtAuthenticationFilter;
+import com.example.Student_Management_System.security.JwtUtil;
+import com.example.Student_Management_System.security.VerifiedToken;
+import com.example.Student_Management_System.security.VerifiedTokenCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of authenticating one request with a bearer token: the full filter path with and
+ * without a verified-token cache hit, token verification on its own, and issuing a token.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtAuthenticationFilterBenchmark {
+
+    static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-0123456789";
+    static final String EMAIL = "student@example.com";
+
+    private JwtUtil jwtUtil;
+    private JwtAuthenticationFilter filter;
+    private JwtAuthenticationFilter cachingFilter;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(SECRET, TimeUnit.HOURS.toMillis(1));
+        UserDetails user = User.withUsername(EMAIL).password("unused").roles("STUDENT").build();
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        // A zero-size cache never retains entries, so every request takes the verify path
+        filter = new JwtAuthenticationFilter(jwtUtil, email -> user, new VerifiedTokenCache(0), meterRegistry);
+        cachingFilter = new JwtAuthenticationFilter(jwtUtil, email -> user, new VerifiedTokenCache(10_000), meterRegistry);
+        token = jwtUtil.generateToken(EMAIL, "STUDENT", 1L, "STU0000001");
+    }
+
+    @Benchmark
+    public Authentication filterRequest() throws Exception {
+        return authenticate(filter);
+    }
+
+    @Benchmark
+    public Authentication filterRequestCached() throws Exception {
+        return authenticate(cachingFilter);
+    }
+
+    private Authentication authenticate(JwtAuthenticationFilter target) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/students/1");
+        request.addHeader("Authorization", "Bearer " + token);
+        target.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    @Benchmark
+    public VerifiedToken verifyToken() {
+        return jwtUtil.verify(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(EMAIL, "STUDENT", 1L, "STU0000001");
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.Student_Management_System.benchmark;
+
+import com.example.Student_Management_System.service.StudentIdAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Student ID formatting and parsing, and handing out IDs from leased blocks. The sequence is
+ * simulated in memory, so {@code nextStudentId} measures the allocator itself: the block
+ * counter, the lease lock every block-size IDs, and formatting.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StudentIdAllocatorBenchmark {
+
+    @Param({"100"})
+    public long blockSize;
+
+    private StudentIdAllocator allocator;
+    private long number;
+    private String studentId;
+
+    @Setup
+    public void setUp() {
+        allocator = new StudentIdAllocator(new InMemorySequence(blockSize));
+        number = 1_234_567L;
+        studentId = StudentIdAllocator.format(number);
+    }
+
+    @Benchmark
+    public String format() {
+        return StudentIdAllocator.format(number);
+    }
+
+    @Benchmark
+    public long parse() {
+        return StudentIdAllocator.parse(studentId);
+    }
+
+    @Benchmark
+    public String nextStudentId() {
+        return allocator.nextStudentId();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String nextStudentIdContended() {
+        return allocator.nextStudentId();
+    }
+
+    /**
+     * Answers the allocator's two queries as student_number_seq would: the increment, and
+     * nextval stepping by it. Wraps around before the student number range runs out.
+     */
+    static final class InMemorySequence extends JdbcTemplate {
+
+        private final long increment;
+        private final AtomicLong next = new AtomicLong(1);
+
+        InMemorySequence(long increment) {
+            this.increment = increment;
+        }
+
+        @Override
+        public <T> T queryForObject(String sql, Class<T> requiredType, Object... args) {
+            return requiredType.cast(increment);
+        }
+
+        @Override
+        public <T> T queryForObject(String sql, Class<T> requiredType) {
+            long start = next.getAndAdd(increment);
+            if (start + increment > StudentIdAllocator.MAX_NUMBER) {
+                next.set(1 + increment);
+                start = 1;
+            }
+            return requiredType.cast(start);
+        }
+    }
+}
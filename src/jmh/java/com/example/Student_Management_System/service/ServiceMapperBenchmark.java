@@ -0,0 +1,93 @@
+package com.example.Student_Management_System.service;
+
+import com.example.Student_Management_System.dto.CourseRegistrationResponseDTO;
+import com.example.Student_Management_System.dto.CourseResponseDTO;
+import com.example.Student_Management_System.dto.StudentResponseDTO;
+import com.example.Student_Management_System.entity.Course;
+import com.example.Student_Management_System.entity.Student;
+import com.example.Student_Management_System.repository.CourseRegistrationJdbcRepository.RegistrationResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-DTO conversion in the three services, over one page of rows. Lives in the
+ * service package because the mappers are package-private.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ServiceMapperBenchmark {
+
+    // The default and maximum page sizes of the list endpoints
+    @Param({"50", "500"})
+    public int rows;
+
+    private List<Student> students;
+    private List<Course> courses;
+    private List<RegistrationResult> registrations;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        students = new ArrayList<>(rows);
+        courses = new ArrayList<>(rows);
+        registrations = new ArrayList<>(rows);
+        for (long i = 1; i <= rows; i++) {
+            String studentCode = StudentIdAllocator.format(i);
+            String courseCode = "CS" + (100 + i);
+            students.add(Student.builder()
+                    .id(i)
+                    .firstName("First" + i)
+                    .lastName("Last" + i)
+                    .email("student" + i + "@example.com")
+                    .studentId(studentCode)
+                    .userId(i)
+                    .totalCredits(12)
+                    .build());
+            courses.add(Course.builder()
+                    .id(i)
+                    .courseCode(courseCode)
+                    .courseName("Course " + i)
+                    .description("Description of course " + i)
+                    .credits(3)
+                    .capacity(100)
+                    .seatsAvailable(40)
+                    .enrolledCount(60)
+                    .build());
+            registrations.add(new RegistrationResult(i, studentCode, i, i, now, courseCode, "Course " + i,
+                    "Description of course " + i, 3, 100, true, false, false, null, null));
+        }
+    }
+
+    @Benchmark
+    public List<StudentResponseDTO> studentToDTO() {
+        return students.stream().map(StudentService::convertToDTO).toList();
+    }
+
+    @Benchmark
+    public List<CourseResponseDTO> courseToDTO() {
+        return courses.stream().map(CourseService::convertToDTO).toList();
+    }
+
+    @Benchmark
+    public List<CourseRegistrationResponseDTO> registrationToDTO() {
+        return registrations.stream().map(CourseRegistrationService::convertToDTO).toList();
+    }
+}
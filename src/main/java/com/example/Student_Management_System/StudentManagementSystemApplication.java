@@ -1,9 +1,14 @@
 package com.example.Student_Management_System;
 
+import com.example.Student_Management_System.repository.NaturalIdRepositoryImpl;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
+@EnableJpaRepositories(repositoryBaseClass = NaturalIdRepositoryImpl.class)
 public class StudentManagementSystemApplication {
 
 	public static void main(String[] args) {
@@ -30,7 +30,7 @@ public class AdminSeeder implements CommandLineRunner {
     @Override
     public void run(String... args) throws Exception {
         // Check if admin already exists
-        if (userRepository.findByEmail(adminEmail).isEmpty()) {
+        if (userRepository.findBySimpleNaturalId(adminEmail).isEmpty()) {
             log.info("Creating admin user...");
 
             // Hash password
@@ -0,0 +1,35 @@
+package com.example.Student_Management_System.config;
+
+import com.example.Student_Management_System.repository.SlowQueryLog;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the DataSource so every statement passes through SlowQueryLog. Replaces Hibernate's
+ * show-sql and binder tracing, which formatted and wrote every statement synchronously.
+ */
+@Configuration
+public class DataSourceProxyConfig {
+
+    // Static, so post-processing doesn't need this configuration class instantiated first
+    @Bean
+    static BeanPostProcessor slowQueryDataSourceProxy(ObjectProvider<SlowQueryLog> slowQueryLog) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(beanName, dataSource)
+                            .listener(slowQueryLog.getObject())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.Student_Management_System.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hands Hikari its metrics tracker before the pool starts. Boot binds it once the meter
+ * registry is ready, which is after Flyway has already opened the pool, and Hikari refuses
+ * a tracker on a running pool.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    static BeanPostProcessor hikariMetricsTracker(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                // Runs before the slow query proxy wraps the pool
+                if (bean instanceof HikariDataSource hikari && hikari.getMetricsTrackerFactory() == null
+                        && hikari.getMetricRegistry() == null) {
+                    hikari.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry.getObject()));
+                }
+                return bean;
+            }
+        };
+    }
+}
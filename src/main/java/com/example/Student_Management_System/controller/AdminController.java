@@ -0,0 +1,111 @@
+package com.example.Student_Management_System.controller;
+
+import com.example.Student_Management_System.dto.CacheStatsDTO;
+import com.example.Student_Management_System.dto.DeletionPurgeStatsDTO;
+import com.example.Student_Management_System.dto.EnrolmentStatsDTO;
+import com.example.Student_Management_System.dto.EntityCacheStatsDTO;
+import com.example.Student_Management_System.dto.PasswordHashingStatsDTO;
+import com.example.Student_Management_System.dto.RegistrationIntakeStatsDTO;
+import com.example.Student_Management_System.dto.SlowQueryStatsDTO;
+import com.example.Student_Management_System.repository.SecondLevelCache;
+import com.example.Student_Management_System.repository.SlowQueryLog;
+import com.example.Student_Management_System.security.CustomUserDetailsService;
+import com.example.Student_Management_System.security.PasswordHashingService;
+import com.example.Student_Management_System.security.VerifiedTokenCache;
+import com.example.Student_Management_System.service.CourseCatalogCache;
+import com.example.Student_Management_System.service.DeletionPurgeService;
+import com.example.Student_Management_System.service.EnrolmentCounterService;
+import com.example.Student_Management_System.service.RegistrationIntakeService;
+import com.example.Student_Management_System.service.StudentEnrolmentCache;
+import com.example.Student_Management_System.service.StudentExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class AdminController {
+
+    private final StudentExportService studentExportService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final CustomUserDetailsService customUserDetailsService;
+    private final PasswordHashingService passwordHashingService;
+    private final RegistrationIntakeService registrationIntakeService;
+    private final StudentEnrolmentCache studentEnrolmentCache;
+    private final CourseCatalogCache courseCatalogCache;
+    private final SecondLevelCache secondLevelCache;
+    private final SlowQueryLog slowQueryLog;
+    private final DeletionPurgeService deletionPurgeService;
+    private final EnrolmentCounterService enrolmentCounterService;
+
+    @GetMapping(value = "/export/students", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportStudents() {
+        StreamingResponseBody body = studentExportService::writeStudentsNdjson;
+        return new ResponseEntity<>(body, HttpStatus.OK);
+    }
+
+    @GetMapping("/caches")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<CacheStatsDTO>> getCacheStats() {
+        List<CacheStatsDTO> stats = List.of(verifiedTokenCache.stats(), customUserDetailsService.stats(),
+                studentEnrolmentCache.stats(), courseCatalogCache.stats());
+        return new ResponseEntity<>(stats, HttpStatus.OK);
+    }
+
+    @GetMapping("/entity-caches")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<EntityCacheStatsDTO>> getEntityCacheStats() {
+        List<EntityCacheStatsDTO> stats = secondLevelCache.stats();
+        return new ResponseEntity<>(stats, HttpStatus.OK);
+    }
+
+    @GetMapping("/slow-queries")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<SlowQueryStatsDTO> getSlowQueries() {
+        SlowQueryStatsDTO stats = slowQueryLog.stats();
+        return new ResponseEntity<>(stats, HttpStatus.OK);
+    }
+
+    @GetMapping("/password-hashing")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PasswordHashingStatsDTO> getPasswordHashingStats() {
+        PasswordHashingStatsDTO stats = passwordHashingService.stats();
+        return new ResponseEntity<>(stats, HttpStatus.OK);
+    }
+
+    @GetMapping("/registration-intake")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RegistrationIntakeStatsDTO> getRegistrationIntakeStats() {
+        RegistrationIntakeStatsDTO stats = registrationIntakeService.stats();
+        return new ResponseEntity<>(stats, HttpStatus.OK);
+    }
+
+    @GetMapping("/deletion-purge")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<DeletionPurgeStatsDTO> getDeletionPurgeStats() {
+        DeletionPurgeStatsDTO stats = deletionPurgeService.stats();
+        return new ResponseEntity<>(stats, HttpStatus.OK);
+    }
+
+    @GetMapping("/enrolment-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<EnrolmentStatsDTO> getEnrolmentStats() {
+        EnrolmentStatsDTO stats = enrolmentCounterService.stats();
+        return new ResponseEntity<>(stats, HttpStatus.OK);
+    }
+
+    @PostMapping("/enrolment-stats/reconcile")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<EnrolmentStatsDTO> reconcileEnrolmentCounters() {
+        EnrolmentStatsDTO stats = enrolmentCounterService.reconcile();
+        return new ResponseEntity<>(stats, HttpStatus.OK);
+    }
+}
@@ -1,7 +1,13 @@
 package com.example.Student_Management_System.controller;
 
+import com.example.Student_Management_System.dto.BulkOperationResponseDTO;
+import com.example.Student_Management_System.dto.CohortEnrolmentRequestDTO;
+import com.example.Student_Management_System.dto.CourseRegistrationResponseDTO;
 import com.example.Student_Management_System.dto.CourseRequestDTO;
 import com.example.Student_Management_System.dto.CourseResponseDTO;
+import com.example.Student_Management_System.dto.CursorPageResponseDTO;
+import com.example.Student_Management_System.dto.StudentResponseDTO;
+import com.example.Student_Management_System.service.CourseRegistrationService;
 import com.example.Student_Management_System.service.CourseService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -10,14 +16,13 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/courses")
 @RequiredArgsConstructor
 public class CourseController {
 
     private final CourseService courseService;
+    private final CourseRegistrationService courseRegistrationService;
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -28,8 +33,10 @@ public class CourseController {
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<CourseResponseDTO>> getAllCourses() {
-        List<CourseResponseDTO> courses = courseService.getAllCourses();
+    public ResponseEntity<CursorPageResponseDTO<CourseResponseDTO>> getCourses(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = CursorPageResponseDTO.DEFAULT_LIMIT) int limit) {
+        CursorPageResponseDTO<CourseResponseDTO> courses = courseService.getCourses(after, limit);
         return new ResponseEntity<>(courses, HttpStatus.OK);
     }
 
@@ -49,6 +56,26 @@ public class CourseController {
         return new ResponseEntity<>(responseDTO, HttpStatus.OK);
     }
 
+    @GetMapping("/{courseCode}/students")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CursorPageResponseDTO<StudentResponseDTO>> getCourseStudents(
+            @PathVariable String courseCode,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = CursorPageResponseDTO.DEFAULT_LIMIT) int limit) {
+        CursorPageResponseDTO<StudentResponseDTO> students = courseService.getCourseStudents(courseCode, after, limit);
+        return new ResponseEntity<>(students, HttpStatus.OK);
+    }
+
+    @PostMapping("/{courseCode}/students")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkOperationResponseDTO<CourseRegistrationResponseDTO>> enrolStudents(
+            @PathVariable String courseCode,
+            @Valid @RequestBody CohortEnrolmentRequestDTO requestDTO) {
+        BulkOperationResponseDTO<CourseRegistrationResponseDTO> responseDTO =
+                courseRegistrationService.enrolStudents(courseCode, requestDTO.getStudentIds());
+        return new ResponseEntity<>(responseDTO, HttpStatus.OK);
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> deleteCourse(@PathVariable Long id) {
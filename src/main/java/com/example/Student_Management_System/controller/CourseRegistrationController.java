@@ -1,13 +1,20 @@
 package com.example.Student_Management_System.controller;
 
+import com.example.Student_Management_System.dto.BulkOperationResponseDTO;
 import com.example.Student_Management_System.dto.CourseRegistrationResponseDTO;
+import com.example.Student_Management_System.dto.MultiCourseRegistrationRequestDTO;
+import com.example.Student_Management_System.dto.RegistrationTicketDTO;
+import com.example.Student_Management_System.enums.RegistrationStatus;
 import com.example.Student_Management_System.service.CourseRegistrationService;
-import com.example.Student_Management_System.service.StudentService;
+import com.example.Student_Management_System.service.RegistrationIntakeService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -17,19 +24,57 @@ import java.util.List;
 public class CourseRegistrationController {
 
     private final CourseRegistrationService courseRegistrationService;
-    private final StudentService studentService;
+    private final RegistrationIntakeService registrationIntakeService;
 
     @PostMapping("/{courseCode}/register")
-    @PreAuthorize("hasRole('ADMIN') or (hasRole('STUDENT') and @studentService.isOwnStudentId(#studentId))")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('STUDENT') and @ownership.isOwnStudentId(#studentId))")
     public ResponseEntity<CourseRegistrationResponseDTO> registerForCourse(
             @PathVariable String studentId,
             @PathVariable String courseCode) {
         CourseRegistrationResponseDTO responseDTO = courseRegistrationService.registerForCourse(studentId, courseCode);
-        return new ResponseEntity<>(responseDTO, HttpStatus.CREATED);
+        // A full course with a waitlist accepts the request without registering yet
+        HttpStatus status = responseDTO.getStatus() == RegistrationStatus.WAITLISTED ? HttpStatus.ACCEPTED : HttpStatus.CREATED;
+        return new ResponseEntity<>(responseDTO, status);
+    }
+
+    @PostMapping("/register")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('STUDENT') and @ownership.isOwnStudentId(#studentId))")
+    public ResponseEntity<BulkOperationResponseDTO<CourseRegistrationResponseDTO>> registerForCourses(
+            @PathVariable String studentId,
+            @Valid @RequestBody MultiCourseRegistrationRequestDTO requestDTO) {
+        BulkOperationResponseDTO<CourseRegistrationResponseDTO> responseDTO =
+                courseRegistrationService.registerForCourses(studentId, requestDTO.getCourseCodes());
+        return new ResponseEntity<>(responseDTO, HttpStatus.OK);
+    }
+
+    @PostMapping("/{courseCode}/register/async")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('STUDENT') and @ownership.isOwnStudentId(#studentId))")
+    public ResponseEntity<RegistrationTicketDTO> registerForCourseAsync(
+            @PathVariable String studentId,
+            @PathVariable String courseCode) {
+        RegistrationTicketDTO ticket = registrationIntakeService.submit(studentId, courseCode);
+        return new ResponseEntity<>(ticket, HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("/registrations/{ticketId}")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('STUDENT') and @ownership.isOwnStudentId(#studentId))")
+    public ResponseEntity<RegistrationTicketDTO> getRegistrationTicket(
+            @PathVariable String studentId,
+            @PathVariable String ticketId) {
+        RegistrationTicketDTO ticket = registrationIntakeService.getTicket(studentId, ticketId);
+        return new ResponseEntity<>(ticket, HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/registrations/{ticketId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('STUDENT') and @ownership.isOwnStudentId(#studentId))")
+    public SseEmitter streamRegistrationTicket(
+            @PathVariable String studentId,
+            @PathVariable String ticketId) {
+        return registrationIntakeService.streamTicket(studentId, ticketId);
     }
 
     @DeleteMapping("/{courseCode}/unregister")
-    @PreAuthorize("hasRole('ADMIN') or (hasRole('STUDENT') and @studentService.isOwnStudentId(#studentId))")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('STUDENT') and @ownership.isOwnStudentId(#studentId))")
     public ResponseEntity<Void> unregisterFromCourse(
             @PathVariable String studentId,
             @PathVariable String courseCode) {
@@ -38,7 +83,7 @@ public class CourseRegistrationController {
     }
 
     @GetMapping
-    @PreAuthorize("hasRole('ADMIN') or (hasRole('STUDENT') and @studentService.isOwnStudentId(#studentId))")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('STUDENT') and @ownership.isOwnStudentId(#studentId))")
     public ResponseEntity<List<CourseRegistrationResponseDTO>> getStudentCourses(@PathVariable String studentId) {
         List<CourseRegistrationResponseDTO> courses = courseRegistrationService.getStudentCourses(studentId);
         return new ResponseEntity<>(courses, HttpStatus.OK);
@@ -1,8 +1,12 @@
 package com.example.Student_Management_System.controller;
 
+import com.example.Student_Management_System.dto.BulkOperationResponseDTO;
+import com.example.Student_Management_System.dto.CursorPageResponseDTO;
+import com.example.Student_Management_System.dto.StudentBulkCreateRequestDTO;
 import com.example.Student_Management_System.dto.StudentCreateWithPasswordDTO;
 import com.example.Student_Management_System.dto.StudentRequestDTO;
 import com.example.Student_Management_System.dto.StudentResponseDTO;
+import com.example.Student_Management_System.service.StudentOnboardingService;
 import com.example.Student_Management_System.service.StudentService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -13,14 +17,13 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/students")
 @RequiredArgsConstructor
 public class StudentController {
 
     private final StudentService studentService;
+    private final StudentOnboardingService studentOnboardingService;
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -29,22 +32,33 @@ public class StudentController {
         return new ResponseEntity<>(responseDTO, HttpStatus.CREATED);
     }
 
+    @PostMapping("/bulk")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkOperationResponseDTO<StudentResponseDTO>> createStudents(
+            @Valid @RequestBody StudentBulkCreateRequestDTO requestDTO) {
+        BulkOperationResponseDTO<StudentResponseDTO> responseDTO =
+                studentOnboardingService.createStudents(requestDTO.getStudents());
+        return new ResponseEntity<>(responseDTO, HttpStatus.OK);
+    }
+
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<StudentResponseDTO>> getAllStudents() {
-        List<StudentResponseDTO> students = studentService.getAllStudents();
+    public ResponseEntity<CursorPageResponseDTO<StudentResponseDTO>> getStudents(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = CursorPageResponseDTO.DEFAULT_LIMIT) int limit) {
+        CursorPageResponseDTO<StudentResponseDTO> students = studentService.getStudents(after, limit);
         return new ResponseEntity<>(students, HttpStatus.OK);
     }
 
     @GetMapping("/{id}")
-    @PreAuthorize("hasRole('ADMIN') or (hasRole('STUDENT') and @studentService.isOwnId(#id))")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('STUDENT') and @ownership.isOwnId(#id))")
     public ResponseEntity<StudentResponseDTO> getStudentById(@PathVariable Long id) {
         StudentResponseDTO responseDTO = studentService.getStudentById(id);
         return new ResponseEntity<>(responseDTO, HttpStatus.OK);
     }
 
     @PutMapping("/{id}")
-    @PreAuthorize("hasRole('ADMIN') or (hasRole('STUDENT') and @studentService.isOwnId(#id))")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('STUDENT') and @ownership.isOwnId(#id))")
     public ResponseEntity<StudentResponseDTO> updateStudent(
             @PathVariable Long id,
             @Valid @RequestBody StudentRequestDTO requestDTO) {
@@ -0,0 +1,31 @@
+package com.example.Student_Management_System.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one item in a bulk request. {@code index} is the item's position in the
+ * request and {@code key} the value that identifies it (e.g. email or course code).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkItemResultDTO<T> {
+
+    private int index;
+    private String key;
+    private boolean success;
+    private T result;
+    private String error;
+
+    public static <T> BulkItemResultDTO<T> succeeded(int index, String key, T result) {
+        return BulkItemResultDTO.<T>builder().index(index).key(key).success(true).result(result).build();
+    }
+
+    public static <T> BulkItemResultDTO<T> failed(int index, String key, String error) {
+        return BulkItemResultDTO.<T>builder().index(index).key(key).success(false).error(error).build();
+    }
+}
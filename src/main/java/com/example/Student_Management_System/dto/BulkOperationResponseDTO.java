@@ -0,0 +1,28 @@
+package com.example.Student_Management_System.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkOperationResponseDTO<T> {
+
+    private int succeeded;
+    private int failed;
+    private List<BulkItemResultDTO<T>> results;
+
+    public static <T> BulkOperationResponseDTO<T> of(List<BulkItemResultDTO<T>> results) {
+        int succeeded = (int) results.stream().filter(BulkItemResultDTO::isSuccess).count();
+        return BulkOperationResponseDTO.<T>builder()
+                .succeeded(succeeded)
+                .failed(results.size() - succeeded)
+                .results(results)
+                .build();
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.Student_Management_System.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CohortEnrolmentRequestDTO {
+
+    @NotEmpty(message = "At least one student ID is required")
+    @Size(max = 5000, message = "At most 5000 students can be enrolled per request")
+    private List<@NotBlank(message = "Student ID is required") String> studentIds;
+}
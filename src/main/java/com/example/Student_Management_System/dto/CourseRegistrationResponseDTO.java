@@ -1,5 +1,6 @@
 package com.example.Student_Management_System.dto;
 
+import com.example.Student_Management_System.enums.RegistrationStatus;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -19,4 +20,16 @@ public class CourseRegistrationResponseDTO {
     private String description;
     private Integer credits;
     private LocalDateTime registrationDate;
+    private RegistrationStatus status;
+
+    // 1-based place in the waitlist, only set when status is WAITLISTED
+    private Integer waitlistPosition;
+
+    /**
+     * Projection constructor used by queries over registered courses
+     */
+    public CourseRegistrationResponseDTO(Long id, String courseCode, String courseName, String description,
+                                         Integer credits, LocalDateTime registrationDate) {
+        this(id, courseCode, courseName, description, credits, registrationDate, RegistrationStatus.REGISTERED, null);
+    }
 }
@@ -29,4 +29,9 @@ public class CourseRequestDTO {
     @NotNull(message = "Credits is required")
     @Positive(message = "Credits must be a positive number")
     private Integer credits;
+
+    @Positive(message = "Capacity must be a positive number")
+    private Integer capacity;
+
+    private boolean waitlistEnabled;
 }
@@ -16,4 +16,8 @@ public class CourseResponseDTO {
     private String courseName;
     private String description;
     private Integer credits;
+    private Integer capacity;
+    private Integer seatsAvailable;
+    private boolean waitlistEnabled;
+    private int enrolledCount;
 }
@@ -0,0 +1,52 @@
+package com.example.Student_Management_System.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated listing. Pass {@code nextCursor} back as {@code after}
+ * to fetch the following page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPageResponseDTO<T> {
+
+    // A String so it can be used as a @RequestParam default
+    public static final String DEFAULT_LIMIT = "50";
+    public static final int MAX_LIMIT = 500;
+
+    private List<T> content;
+    private int limit;
+    private boolean hasMore;
+    private Long nextCursor;
+
+    /**
+     * Clamps a client-supplied page size into [1, MAX_LIMIT]
+     */
+    public static int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    /**
+     * Builds a page from rows fetched with {@code limit + 1}; the extra row only signals
+     * that another page exists and is dropped from the content.
+     */
+    public static <T> CursorPageResponseDTO<T> of(List<T> rows, int limit, Function<T, Long> idOf) {
+        boolean hasMore = rows.size() > limit;
+        List<T> content = hasMore ? rows.subList(0, limit) : rows;
+        Long nextCursor = hasMore ? idOf.apply(content.get(content.size() - 1)) : null;
+        return CursorPageResponseDTO.<T>builder()
+                .content(content)
+                .limit(limit)
+                .hasMore(hasMore)
+                .nextCursor(nextCursor)
+                .build();
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.Student_Management_System.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DeletionPurgeStatsDTO {
+
+    // Rows marked deleted, or hanging off one, that are still in the database
+    private long pendingCourses;
+    private long pendingStudents;
+    private long pendingUsers;
+    private long pendingRegistrations;
+    private long pendingWaitlistEntries;
+
+    // Totals removed since startup
+    private long purgedCourses;
+    private long purgedStudents;
+    private long purgedUsers;
+    private long purgedRegistrations;
+    private long purgedWaitlistEntries;
+
+    private int chunkSize;
+    private long chunks;
+    private long failedRuns;
+    private LocalDateTime lastRunAt;
+    private double lastRunMillis;
+}
@@ -0,0 +1,32 @@
+package com.example.Student_Management_System.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EnrolmentStatsDTO {
+
+    // Read from the maintained counters, not counted from course_registrations
+    private long courses;
+    private long fullCourses;
+    private long totalEnrolments;
+    private int largestCourseEnrolment;
+    private long students;
+    private double averageCredits;
+    private int maxCredits;
+
+    // Most recent reconciliation of the counters against course_registrations
+    private LocalDateTime lastReconciledAt;
+    private double lastReconcileMillis;
+    private long lastCoursesRepaired;
+    private long lastStudentsRepaired;
+    private long reconcileRuns;
+    private long totalRepaired;
+}
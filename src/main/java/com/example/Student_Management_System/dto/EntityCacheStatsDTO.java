@@ -0,0 +1,23 @@
+package com.example.Student_Management_System.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EntityCacheStatsDTO {
+
+    private String region;
+    private long hitCount;
+    private long missCount;
+    private double hitRate;
+    private long putCount;
+
+    // Entries dropped by updates and explicit evictions, and by the region's size bound
+    private long removalCount;
+    private long evictionCount;
+}
@@ -0,0 +1,25 @@
+package com.example.Student_Management_System.dto;
+
+import com.example.Student_Management_System.enums.Role;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A user with their linked student (if any), loaded in one query for login.
+ * Internal only - carries the password hash and must never be returned to clients.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LoginAccountDTO {
+
+    private Long userId;
+    private String email;
+    private String password;
+    private Role role;
+    private Long studentId;
+    private String studentCode;
+}
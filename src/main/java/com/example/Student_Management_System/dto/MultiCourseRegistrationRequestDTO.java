@@ -0,0 +1,22 @@
+package com.example.Student_Management_System.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MultiCourseRegistrationRequestDTO {
+
+    @NotEmpty(message = "At least one course code is required")
+    @Size(max = 50, message = "At most 50 courses can be registered per request")
+    private List<@NotBlank(message = "Course code is required") String> courseCodes;
+}
@@ -0,0 +1,27 @@
+package com.example.Student_Management_System.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PasswordHashingStatsDTO {
+
+    private int cost;
+    private long targetMillis;
+    private Map<Integer, Long> calibrationMillis;
+    private long encodeCount;
+    private double encodeAverageMillis;
+    private long matchesCount;
+    private double matchesAverageMillis;
+    private int loginThreads;
+    private int loginActive;
+    private int loginQueued;
+    private long loginRejected;
+}
@@ -0,0 +1,27 @@
+package com.example.Student_Management_System.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RegistrationIntakeStatsDTO {
+
+    private int queued;
+    private int queueCapacity;
+    private long accepted;
+    private long rejected;
+    private long batches;
+    private long processed;
+    private double averageBatchSize;
+    private double averageBatchMillis;
+
+    // Tickets held for polling; evictions count both expired and size-evicted tickets
+    private long tickets;
+    private long maxTickets;
+    private long ticketEvictions;
+}
@@ -0,0 +1,25 @@
+package com.example.Student_Management_System.dto;
+
+import com.example.Student_Management_System.enums.RegistrationTicketStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RegistrationTicketDTO {
+
+    private String ticketId;
+    private String studentId;
+    private String courseCode;
+    private RegistrationTicketStatus status;
+    private CourseRegistrationResponseDTO registration;
+    private String error;
+    private LocalDateTime submittedAt;
+    private LocalDateTime completedAt;
+}
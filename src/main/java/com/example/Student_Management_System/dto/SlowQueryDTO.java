@@ -0,0 +1,25 @@
+package com.example.Student_Management_System.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SlowQueryDTO {
+
+    // Whitespace collapsed and literals replaced with ?, so runs of one statement look alike
+    private String sql;
+
+    // Innermost repository method on the stack, else the innermost application method
+    private String caller;
+
+    private long elapsedMillis;
+    private int batchSize;
+    private LocalDateTime executedAt;
+}
@@ -0,0 +1,25 @@
+package com.example.Student_Management_System.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SlowQueryStatsDTO {
+
+    private long thresholdMillis;
+    private double sampleRate;
+
+    // Totals since startup
+    private long statements;
+    private long slowStatements;
+
+    // Slowest statements of the last top-window, slowest first
+    private List<SlowQueryDTO> slowest;
+}
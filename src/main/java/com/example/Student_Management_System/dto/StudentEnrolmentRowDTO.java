@@ -0,0 +1,31 @@
+package com.example.Student_Management_System.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat student/enrolment row read by the export cursor. The registration and course
+ * columns are null for a student with no enrolments.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StudentEnrolmentRowDTO {
+
+    private Long id;
+    private String studentId;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private Long registrationId;
+    private String courseCode;
+    private String courseName;
+    private String description;
+    private Integer credits;
+    private LocalDateTime registrationDate;
+}
@@ -0,0 +1,25 @@
+package com.example.Student_Management_System.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StudentExportDTO {
+
+    private Long id;
+    private String studentId;
+    private String firstName;
+    private String lastName;
+    private String email;
+
+    @Builder.Default
+    private List<CourseRegistrationResponseDTO> enrolments = new ArrayList<>();
+}
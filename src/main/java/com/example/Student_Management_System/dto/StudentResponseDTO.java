@@ -16,4 +16,5 @@ public class StudentResponseDTO {
     private String lastName;
     private String email;
     private String studentId;
+    private int totalCredits;
 }
@@ -6,11 +6,23 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import org.hibernate.annotations.SQLRestriction;
+
+import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "courses", uniqueConstraints = {
     @UniqueConstraint(columnNames = "course_code")
 })
+// Deleted courses stay hidden from JPA until DeletionPurgeService removes them
+@SQLRestriction("deleted_at IS NULL")
+// Counter columns are written by JDBC; SecondLevelCache evicts those rows after commit
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "course")
+@NaturalIdCache(region = "course-natural-id")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -19,11 +31,13 @@ import lombok.*;
 public class Course {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "courses_seq")
+    @SequenceGenerator(name = "courses_seq", sequenceName = "courses_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Course code is required")
     @Size(min = 3, max = 20, message = "Course code must be between 3 and 20 characters")
+    @NaturalId(mutable = true)
     @Column(name = "course_code", nullable = false, unique = true, length = 20)
     private String courseCode;
 
@@ -40,4 +54,28 @@ public class Course {
     @Positive(message = "Credits must be a positive number")
     @Column(name = "credits", nullable = false)
     private Integer credits;
+
+    // Maximum number of registered students; null means unlimited
+    @Positive(message = "Capacity must be a positive number")
+    @Column(name = "capacity", updatable = false)
+    private Integer capacity;
+
+    // Free seats, null when unlimited. Only changed by conditional UPDATEs in
+    // CourseRegistrationJdbcRepository, never written back from the entity.
+    @Column(name = "seats_available", updatable = false)
+    private Integer seatsAvailable;
+
+    @Builder.Default
+    @Column(name = "waitlist_enabled", nullable = false, columnDefinition = "boolean default false")
+    private boolean waitlistEnabled = false;
+
+    // Registered students. Like seatsAvailable, only changed by the registration SQL and
+    // checked by EnrolmentCounterService
+    @Builder.Default
+    @Column(name = "enrolled_count", nullable = false, updatable = false, columnDefinition = "integer default 0")
+    private int enrolledCount = 0;
+
+    // Set on delete; registrations and waitlist entries go first, then the row itself
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
 }
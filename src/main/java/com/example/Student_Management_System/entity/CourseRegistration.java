@@ -8,6 +8,9 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "course_registrations", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"student_id", "course_id"})
+}, indexes = {
+    // The unique constraint leads with student_id; rosters and per-course purges need course_id first
+    @Index(name = "idx_course_registrations_course_id", columnList = "course_id, student_id")
 })
 @Getter
 @Setter
@@ -17,7 +20,8 @@ import java.time.LocalDateTime;
 public class CourseRegistration {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "course_registrations_seq")
+    @SequenceGenerator(name = "course_registrations_seq", sequenceName = "course_registrations_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
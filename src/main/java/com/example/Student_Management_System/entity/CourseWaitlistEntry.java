@@ -0,0 +1,40 @@
+package com.example.Student_Management_System.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A student waiting for a seat in a full course. Entries are promoted in id order, and ids
+ * come straight from nextval in SQL, so the order is the order students joined.
+ */
+@Entity
+@Table(name = "course_waitlist", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"student_id", "course_id"})
+}, indexes = {
+    @Index(name = "idx_course_waitlist_course_id", columnList = "course_id, id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CourseWaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "course_waitlist_seq")
+    @SequenceGenerator(name = "course_waitlist_seq", sequenceName = "course_waitlist_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "student_id", nullable = false)
+    private Student student;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "course_id", nullable = false)
+    private Course course;
+
+    @Column(name = "joined_at", nullable = false)
+    private LocalDateTime joinedAt;
+}
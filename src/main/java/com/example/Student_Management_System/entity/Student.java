@@ -5,12 +5,22 @@ import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import org.hibernate.annotations.SQLRestriction;
+
+import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "students", uniqueConstraints = {
     @UniqueConstraint(columnNames = "email"),
     @UniqueConstraint(columnNames = "student_id")
 })
+@SQLRestriction("deleted_at IS NULL")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "student")
+@NaturalIdCache(region = "student-natural-id")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -19,7 +29,8 @@ import lombok.*;
 public class Student {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "students_seq")
+    @SequenceGenerator(name = "students_seq", sequenceName = "students_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "First name is required")
@@ -39,9 +50,19 @@ public class Student {
     private String email;
 
     @Size(min = 6, max = 10, message = "Student ID must be between 6 and 10 characters")
+    @NaturalId
     @Column(name = "student_id", nullable = false, unique = true, length = 10)
     private String studentId;
 
     @Column(name = "user_id", nullable = true)
     private Long userId;
+
+    // Sum of the credits of the registered courses, kept by the registration SQL
+    @Builder.Default
+    @Column(name = "total_credits", nullable = false, updatable = false, columnDefinition = "integer default 0")
+    private int totalCredits = 0;
+
+    // Set on delete; registrations, the linked user and this row are purged in the background
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
 }
@@ -0,0 +1,6 @@
+package com.example.Student_Management_System.enums;
+
+public enum RegistrationStatus {
+    REGISTERED,
+    WAITLISTED
+}
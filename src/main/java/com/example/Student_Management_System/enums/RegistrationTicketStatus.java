@@ -0,0 +1,8 @@
+package com.example.Student_Management_System.enums;
+
+public enum RegistrationTicketStatus {
+    PENDING,
+    REGISTERED,
+    WAITLISTED,
+    FAILED
+}
@@ -0,0 +1,12 @@
+package com.example.Student_Management_System.exception;
+
+public class CourseFullException extends RuntimeException {
+
+    public CourseFullException(String message) {
+        super(message);
+    }
+
+    public CourseFullException(String courseCode, Integer capacity) {
+        super(String.format("Course '%s' is full (capacity %d)", courseCode, capacity));
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.Student_Management_System.exception;
+
+public class ServiceUnavailableException extends RuntimeException {
+
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
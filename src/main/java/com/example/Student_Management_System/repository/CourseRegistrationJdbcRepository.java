@@ -0,0 +1,480 @@
+package com.example.Student_Management_System.repository;
+
+import com.example.Student_Management_System.entity.Course;
+import com.example.Student_Management_System.entity.Student;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Course registration writes that need to be a single SQL statement: the student and
+ * course lookups, the duplicate check, seat accounting and the INSERT all happen in one
+ * round trip.
+ *
+ * Seats are a counter on the course row ({@code seats_available}, null when the course is
+ * unlimited) taken with a conditional decrement, so registrations for the same course only
+ * contend for the row lock for the length of one statement, and requests for a full course
+ * don't wait at all. Ids come from one nextval of the pooled sequences, which is ours
+ * alone, so they can't collide with ids Hibernate hands out from its blocks.
+ *
+ * Every statement that adds or removes registrations also keeps {@code courses.enrolled_count}
+ * and {@code students.total_credits} in step. Course rows are always locked before student
+ * rows, and several rows of one table in id order, so the counters can't deadlock.
+ * Rows whose counters moved are evicted from the second-level cache after commit.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CourseRegistrationJdbcRepository {
+
+    private static final String REGISTER_BY_CODES = registerSql("student_id", "course_code");
+
+    private static final String REGISTER_BY_IDS = registerSql("id", "id");
+
+    // One student into many courses. Course rows are locked in id order first, so concurrent
+    // multi-course requests can't deadlock on each other's courses; the student row is
+    // updated last, like in every other statement that touches both.
+    private static final String REGISTER_MANY_COURSES =
+            "WITH req AS (SELECT code, ord FROM unnest(CAST(? AS text[])) WITH ORDINALITY AS t(code, ord)), " +
+            "s AS (SELECT id, student_id FROM students WHERE student_id = ? AND deleted_at IS NULL), " +
+            "c AS (SELECT req.ord, req.code, co.id, co.course_code, co.course_name, co.description, co.credits, " +
+            "co.capacity, co.waitlist_enabled FROM req LEFT JOIN courses co " +
+            "ON co.course_code = req.code AND co.deleted_at IS NULL), " +
+            "existing AS (SELECT r.course_id FROM course_registrations r, s " +
+            "WHERE r.student_id = s.id AND r.course_id IN (SELECT id FROM c)), " +
+            "waiting AS (SELECT w.course_id FROM course_waitlist w, s " +
+            "WHERE w.student_id = s.id AND w.course_id IN (SELECT id FROM c)), " +
+            "eligible AS (SELECT * FROM c WHERE id IS NOT NULL AND EXISTS (SELECT 1 FROM s) " +
+            "AND id NOT IN (SELECT course_id FROM existing) AND id NOT IN (SELECT course_id FROM waiting)), " +
+            "locked AS MATERIALIZED (SELECT id FROM courses WHERE id IN (SELECT id FROM eligible) " +
+            "AND (seats_available > 0 OR capacity IS NULL) ORDER BY id FOR NO KEY UPDATE), " +
+            "seat AS (UPDATE courses SET seats_available = seats_available - 1, enrolled_count = enrolled_count + 1 " +
+            "WHERE id IN (SELECT id FROM locked) AND seats_available > 0 RETURNING id), " +
+            "admit AS (SELECT id FROM eligible WHERE capacity IS NULL UNION ALL SELECT id FROM seat), " +
+            "ins AS (INSERT INTO course_registrations (id, student_id, course_id, registration_date) " +
+            "SELECT nextval('course_registrations_seq'), s.id, admit.id, ? FROM s CROSS JOIN admit " +
+            "ON CONFLICT (student_id, course_id) DO NOTHING RETURNING id, course_id, registration_date), " +
+            "unlimited AS (UPDATE courses SET enrolled_count = enrolled_count + 1 " +
+            "WHERE id IN (SELECT course_id FROM ins) AND capacity IS NULL RETURNING id), " +
+            "credit AS (UPDATE students SET total_credits = total_credits + " +
+            "(SELECT sum(c.credits) FROM ins JOIN c ON c.id = ins.course_id) " +
+            "WHERE id = (SELECT id FROM s) AND EXISTS (SELECT 1 FROM ins) RETURNING id), " +
+            "wl AS (INSERT INTO course_waitlist (id, student_id, course_id, joined_at) " +
+            "SELECT nextval('course_waitlist_seq'), s.id, e.id, ? FROM s CROSS JOIN eligible e " +
+            "WHERE e.capacity IS NOT NULL AND e.waitlist_enabled AND e.id NOT IN (SELECT id FROM seat) " +
+            "ON CONFLICT (student_id, course_id) DO NOTHING RETURNING id, course_id) " +
+            "SELECT (SELECT id FROM s) AS student_pk, (SELECT student_id FROM s) AS student_code, c.id AS course_pk, " +
+            "ins.id AS registration_id, ins.registration_date, " +
+            "COALESCE(c.course_code, c.code) AS course_code, c.course_name, c.description, c.credits, c.capacity, " +
+            "c.id IN (SELECT id FROM seat) AS seat_taken, " +
+            "c.id IN (SELECT course_id FROM existing) AS already_registered, " +
+            "c.id IN (SELECT course_id FROM waiting) AS already_waitlisted, " +
+            "wl.id AS waitlist_id, " +
+            "CASE WHEN wl.id IS NOT NULL THEN CAST((SELECT count(*) FROM course_waitlist w " +
+            "WHERE w.course_id = c.id AND w.id < wl.id) + 1 AS integer) END AS waitlist_position " +
+            "FROM c LEFT JOIN ins ON ins.course_id = c.id LEFT JOIN wl ON wl.course_id = c.id " +
+            "ORDER BY c.ord";
+
+    // Many students into one course. The course row is locked once and the free seats go to
+    // the students in request order; the rest are waitlisted if the course has a waitlist.
+    // The admitted students' rows are then locked in id order to add the credits.
+    private static final String ENROL_COHORT =
+            "WITH req AS (SELECT code, ord FROM unnest(CAST(? AS text[])) WITH ORDINALITY AS t(code, ord)), " +
+            "c AS (SELECT id, course_code, course_name, description, credits, capacity, waitlist_enabled " +
+            "FROM courses WHERE course_code = ? AND deleted_at IS NULL), " +
+            "s AS (SELECT req.ord, req.code, st.id FROM req LEFT JOIN students st " +
+            "ON st.student_id = req.code AND st.deleted_at IS NULL), " +
+            "existing AS (SELECT r.student_id FROM course_registrations r, c " +
+            "WHERE r.course_id = c.id AND r.student_id IN (SELECT id FROM s)), " +
+            "waiting AS (SELECT w.student_id FROM course_waitlist w, c " +
+            "WHERE w.course_id = c.id AND w.student_id IN (SELECT id FROM s)), " +
+            "eligible AS (SELECT ord, id FROM s WHERE id IS NOT NULL AND EXISTS (SELECT 1 FROM c) " +
+            "AND id NOT IN (SELECT student_id FROM existing) AND id NOT IN (SELECT student_id FROM waiting)), " +
+            "locked AS MATERIALIZED (SELECT id, capacity, seats_available FROM courses " +
+            "WHERE id = (SELECT id FROM c) FOR UPDATE), " +
+            "admitted AS MATERIALIZED (SELECT ord, id FROM eligible ORDER BY ord " +
+            "LIMIT (SELECT CASE WHEN capacity IS NULL THEN NULL ELSE GREATEST(seats_available, 0) END FROM locked)), " +
+            "seat AS (UPDATE courses SET seats_available = seats_available - (SELECT count(*) FROM admitted), " +
+            "enrolled_count = enrolled_count + (SELECT count(*) FROM admitted) " +
+            "WHERE id IN (SELECT id FROM locked) RETURNING id), " +
+            "ins AS (INSERT INTO course_registrations (id, student_id, course_id, registration_date) " +
+            "SELECT nextval('course_registrations_seq'), a.id, c.id, ? " +
+            "FROM (SELECT id FROM admitted ORDER BY ord) a CROSS JOIN c " +
+            "ON CONFLICT (student_id, course_id) DO NOTHING RETURNING id, student_id, registration_date), " +
+            "students_locked AS MATERIALIZED (SELECT id FROM students WHERE id IN (SELECT student_id FROM ins) " +
+            "ORDER BY id FOR NO KEY UPDATE), " +
+            "credit AS (UPDATE students SET total_credits = total_credits + (SELECT credits FROM c) " +
+            "WHERE id IN (SELECT id FROM students_locked) RETURNING id), " +
+            "wl AS (INSERT INTO course_waitlist (id, student_id, course_id, joined_at) " +
+            "SELECT nextval('course_waitlist_seq'), e.id, c.id, ? " +
+            "FROM (SELECT ord, id FROM eligible WHERE id NOT IN (SELECT id FROM admitted) ORDER BY ord) e CROSS JOIN c " +
+            "WHERE c.capacity IS NOT NULL AND c.waitlist_enabled " +
+            "ON CONFLICT (student_id, course_id) DO NOTHING RETURNING id, student_id) " +
+            "SELECT s.id AS student_pk, s.code AS student_code, c.id AS course_pk, " +
+            "ins.id AS registration_id, ins.registration_date, " +
+            "c.course_code, c.course_name, c.description, c.credits, c.capacity, " +
+            "s.id IN (SELECT id FROM admitted) AS seat_taken, " +
+            "s.id IN (SELECT student_id FROM existing) AS already_registered, " +
+            "s.id IN (SELECT student_id FROM waiting) AS already_waitlisted, " +
+            "wl.id AS waitlist_id, " +
+            "CASE WHEN wl.id IS NOT NULL THEN CAST((SELECT count(*) FROM course_waitlist w " +
+            "WHERE w.course_id = c.id AND w.id < wl.id) + (SELECT count(*) FROM wl w2 WHERE w2.id < wl.id) + 1 " +
+            "AS integer) END AS waitlist_position " +
+            "FROM s LEFT JOIN c ON TRUE LEFT JOIN ins ON ins.student_id = s.id LEFT JOIN wl ON wl.student_id = s.id " +
+            "ORDER BY s.ord";
+
+    static final String UNREGISTER_BY_CODES = unregisterSql("student_id", "course_code");
+
+    static final String UNREGISTER_BY_IDS = unregisterSql("id", "id");
+
+    // Right-hand side of SET sees the old capacity, so the free seats move by the difference
+    private static final String RESIZE =
+            "UPDATE courses SET capacity = ?, seats_available = CASE " +
+            "WHEN CAST(? AS integer) IS NULL THEN NULL " +
+            "WHEN capacity IS NULL THEN CAST(? AS integer) - enrolled_count " +
+            "ELSE seats_available + (CAST(? AS integer) - capacity) END " +
+            "WHERE id = ? RETURNING seats_available";
+
+    // Fills free seats (all of them for an unlimited course) from the head of the waitlist.
+    // The course id is bound again for the waitlist read, so it is a range scan of
+    // idx_course_waitlist_course_id (course_id, id) rather than a join against the locked row.
+    static final String PROMOTE =
+            "WITH c AS (SELECT id, credits, seats_available FROM courses " +
+            "WHERE id = ? AND (seats_available > 0 OR capacity IS NULL) FOR UPDATE), " +
+            "next AS (SELECT w.id FROM course_waitlist w WHERE w.course_id = ? AND EXISTS (SELECT 1 FROM c) " +
+            "ORDER BY w.id LIMIT (SELECT COALESCE(seats_available, 2147483647) FROM c) FOR UPDATE OF w SKIP LOCKED), " +
+            "promoted AS (DELETE FROM course_waitlist w USING next WHERE w.id = next.id " +
+            "RETURNING w.student_id, w.course_id), " +
+            "ins AS (INSERT INTO course_registrations (id, student_id, course_id, registration_date) " +
+            "SELECT nextval('course_registrations_seq'), student_id, course_id, ? FROM promoted " +
+            "ON CONFLICT (student_id, course_id) DO NOTHING RETURNING id, student_id), " +
+            "students_locked AS MATERIALIZED (SELECT id FROM students WHERE id IN (SELECT student_id FROM ins) " +
+            "ORDER BY id FOR NO KEY UPDATE), " +
+            "credit AS (UPDATE students SET total_credits = total_credits + (SELECT credits FROM c) " +
+            "WHERE id IN (SELECT id FROM students_locked) RETURNING id) " +
+            "UPDATE courses SET seats_available = seats_available - (SELECT count(*) FROM ins), " +
+            "enrolled_count = enrolled_count + (SELECT count(*) FROM ins) " +
+            "WHERE id IN (SELECT id FROM c) RETURNING (SELECT count(*) FROM ins)";
+
+    // Locks the course row so no registration can commit between reading and applying the change
+    private static final String LOCK_CREDITS =
+            "SELECT credits FROM courses WHERE id = ? FOR NO KEY UPDATE";
+
+    private static final String SHIFT_CREDITS =
+            "WITH locked AS MATERIALIZED (SELECT id FROM students WHERE id IN " +
+            "(SELECT student_id FROM course_registrations WHERE course_id = ?) ORDER BY id FOR NO KEY UPDATE) " +
+            "UPDATE students SET total_credits = total_credits + ? WHERE id IN (SELECT id FROM locked)";
+
+    // Counted together with the seat, so the enrolment goes back with it
+    private static final String RELEASE_SEAT =
+            "UPDATE courses SET seats_available = seats_available + 1, enrolled_count = enrolled_count - 1 WHERE id = ?";
+
+    private static final RowMapper<RegistrationResult> REGISTRATION_MAPPER = (rs, rowNum) -> new RegistrationResult(
+            rs.getObject("student_pk", Long.class),
+            rs.getString("student_code"),
+            rs.getObject("course_pk", Long.class),
+            rs.getObject("registration_id", Long.class),
+            rs.getObject("registration_date", LocalDateTime.class),
+            rs.getString("course_code"),
+            rs.getString("course_name"),
+            rs.getString("description"),
+            rs.getObject("credits", Integer.class),
+            rs.getObject("capacity", Integer.class),
+            rs.getBoolean("seat_taken"),
+            rs.getBoolean("already_registered"),
+            rs.getBoolean("already_waitlisted"),
+            rs.getObject("waitlist_id", Long.class),
+            rs.getObject("waitlist_position", Integer.class));
+
+    private static final RowMapper<UnregistrationResult> UNREGISTRATION_MAPPER = (rs, rowNum) -> new UnregistrationResult(
+            rs.getObject("student_pk", Long.class),
+            rs.getString("student_code"),
+            rs.getObject("course_pk", Long.class),
+            rs.getBoolean("unregistered"),
+            rs.getBoolean("left_waitlist"),
+            rs.getObject("promoted_student_pk", Long.class),
+            rs.getString("promoted_student_code"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SecondLevelCache secondLevelCache;
+
+    /**
+     * Registers a student for a course by student ID (STU...) and course code, or puts
+     * them on the waitlist if the course is full and has one
+     */
+    public RegistrationResult register(String studentId, String courseCode, LocalDateTime registrationDate) {
+        return evicted(jdbcTemplate.queryForObject(REGISTER_BY_CODES, REGISTRATION_MAPPER,
+                studentId, courseCode, registrationDate, registrationDate));
+    }
+
+    /**
+     * Registers a student for a course by primary keys
+     */
+    public RegistrationResult register(Long studentId, Long courseId, LocalDateTime registrationDate) {
+        return evicted(jdbcTemplate.queryForObject(REGISTER_BY_IDS, REGISTRATION_MAPPER,
+                studentId, courseId, registrationDate, registrationDate));
+    }
+
+    /**
+     * Registers one student for many courses in one statement. Returns one result per
+     * course code, in request order; codes must be distinct.
+     */
+    public List<RegistrationResult> registerForCourses(String studentId, List<String> courseCodes,
+                                                       LocalDateTime registrationDate) {
+        return evicted(jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(REGISTER_MANY_COURSES);
+            ps.setArray(1, con.createArrayOf("text", courseCodes.toArray()));
+            ps.setString(2, studentId);
+            ps.setObject(3, registrationDate);
+            ps.setObject(4, registrationDate);
+            return ps;
+        }, REGISTRATION_MAPPER));
+    }
+
+    /**
+     * Enrols many students into one course in one statement. Returns one result per
+     * student ID, in request order; IDs must be distinct.
+     */
+    public List<RegistrationResult> enrolCohort(String courseCode, List<String> studentIds,
+                                                LocalDateTime registrationDate) {
+        return evicted(jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(ENROL_COHORT);
+            ps.setArray(1, con.createArrayOf("text", studentIds.toArray()));
+            ps.setString(2, courseCode);
+            ps.setObject(3, registrationDate);
+            ps.setObject(4, registrationDate);
+            return ps;
+        }, REGISTRATION_MAPPER));
+    }
+
+    /**
+     * Removes a student's registration (or waitlist entry) by student ID and course code.
+     * A freed seat goes to the head of the waitlist in the same statement.
+     */
+    public UnregistrationResult unregister(String studentId, String courseCode, LocalDateTime promotionDate) {
+        return evicted(jdbcTemplate.queryForObject(UNREGISTER_BY_CODES, UNREGISTRATION_MAPPER,
+                studentId, courseCode, promotionDate));
+    }
+
+    /**
+     * Removes a student's registration (or waitlist entry) by primary keys
+     */
+    public UnregistrationResult unregister(Long studentId, Long courseId, LocalDateTime promotionDate) {
+        return evicted(jdbcTemplate.queryForObject(UNREGISTER_BY_IDS, UNREGISTRATION_MAPPER,
+                studentId, courseId, promotionDate));
+    }
+
+    /**
+     * Changes a course's capacity and moves its free seats by the same amount; switching
+     * from unlimited starts from the enrolment counter. Returns the new free seats.
+     */
+    public Integer resize(Long courseId, Integer capacity) {
+        List<Integer> seats = jdbcTemplate.query(RESIZE, (rs, rowNum) -> rs.getObject(1, Integer.class),
+                capacity, capacity, capacity, capacity, courseId);
+        secondLevelCache.evict(Course.class, courseId);
+        return seats.isEmpty() ? null : seats.get(0);
+    }
+
+    /**
+     * Moves the credit totals of every student registered for the course by the change in
+     * its credits. Must run in the transaction that saves the new credits; the course row
+     * stays locked until it commits. Returns the number of students updated.
+     */
+    public int changeCredits(Long courseId, int credits) {
+        Integer current = jdbcTemplate.queryForObject(LOCK_CREDITS, Integer.class, courseId);
+        if (current == null || current == credits) {
+            return 0;
+        }
+        // Separate statement, so its snapshot includes every registration committed before the lock
+        int shifted = jdbcTemplate.update(SHIFT_CREDITS, courseId, credits - current);
+        if (shifted > 0) {
+            secondLevelCache.evictAll(Student.class);
+        }
+        return shifted;
+    }
+
+    /**
+     * Gives back a seat taken by a registration that did not go through, for callers that
+     * can't roll back (e.g. a batch where other items must still commit)
+     */
+    public void releaseSeat(Long courseId) {
+        jdbcTemplate.update(RELEASE_SEAT, courseId);
+        secondLevelCache.evict(Course.class, courseId);
+    }
+
+    /**
+     * Moves waitlisted students into any free seats, returning how many were promoted
+     */
+    public int promoteWaitlisted(Long courseId, LocalDateTime registrationDate) {
+        List<Integer> promoted = jdbcTemplate.queryForList(PROMOTE, Integer.class, courseId, courseId, registrationDate);
+        int count = promoted.isEmpty() ? 0 : promoted.get(0);
+        if (count > 0) {
+            // Promoted students aren't returned, so their credit totals go region-wide
+            secondLevelCache.evict(Course.class, courseId);
+            secondLevelCache.evictAll(Student.class);
+        }
+        return count;
+    }
+
+    private RegistrationResult evicted(RegistrationResult result) {
+        if (result.created()) {
+            secondLevelCache.evict(Course.class, result.coursePk());
+            secondLevelCache.evict(Student.class, result.studentPk());
+        }
+        return result;
+    }
+
+    private List<RegistrationResult> evicted(List<RegistrationResult> results) {
+        List<RegistrationResult> created = results.stream().filter(RegistrationResult::created).toList();
+        if (!created.isEmpty()) {
+            secondLevelCache.evict(Course.class, created.stream().map(RegistrationResult::coursePk).distinct().toList());
+            secondLevelCache.evict(Student.class, created.stream().map(RegistrationResult::studentPk).distinct().toList());
+        }
+        return results;
+    }
+
+    private UnregistrationResult evicted(UnregistrationResult result) {
+        if (result.unregistered()) {
+            secondLevelCache.evict(Course.class, result.coursePk());
+            secondLevelCache.evict(Student.class, result.studentPk(), result.promotedStudentPk());
+        }
+        return result;
+    }
+
+    /**
+     * Builds the register statement. The final SELECT always returns exactly one row: a null
+     * student or course key means it wasn't found, and the seat, registration and waitlist
+     * columns tell the remaining outcomes apart.
+     *
+     * The seat is only taken when the student is neither registered nor waitlisted. Two
+     * concurrent requests from the same student can both take a seat; the loser's INSERT
+     * then does nothing, and the caller rolls its transaction back to return the seat.
+     * The enrolment is counted with the seat (or, for an unlimited course, with the insert).
+     */
+    private static String registerSql(String studentColumn, String courseColumn) {
+        return "WITH s AS (SELECT id, student_id FROM students WHERE " + studentColumn + " = ? AND deleted_at IS NULL), " +
+               "c AS (SELECT id, course_code, course_name, description, credits, capacity, waitlist_enabled " +
+               "FROM courses WHERE " + courseColumn + " = ? AND deleted_at IS NULL), " +
+               "existing AS (SELECT r.id FROM course_registrations r, s, c " +
+               "WHERE r.student_id = s.id AND r.course_id = c.id), " +
+               "waiting AS (SELECT w.id FROM course_waitlist w, s, c " +
+               "WHERE w.student_id = s.id AND w.course_id = c.id), " +
+               "seat AS (UPDATE courses SET seats_available = seats_available - 1, enrolled_count = enrolled_count + 1 " +
+               "WHERE id = (SELECT id FROM c) AND seats_available > 0 AND EXISTS (SELECT 1 FROM s) " +
+               "AND NOT EXISTS (SELECT 1 FROM existing) AND NOT EXISTS (SELECT 1 FROM waiting) " +
+               "RETURNING id), " +
+               "admit AS (SELECT id FROM c WHERE capacity IS NULL UNION ALL SELECT id FROM seat), " +
+               "ins AS (" +
+               "INSERT INTO course_registrations (id, student_id, course_id, registration_date) " +
+               "SELECT nextval('course_registrations_seq'), s.id, admit.id, ? FROM s CROSS JOIN admit " +
+               "ON CONFLICT (student_id, course_id) DO NOTHING " +
+               "RETURNING id, registration_date), " +
+               "unlimited AS (UPDATE courses SET enrolled_count = enrolled_count + 1 " +
+               "WHERE id = (SELECT id FROM c) AND capacity IS NULL AND EXISTS (SELECT 1 FROM ins) RETURNING id), " +
+               "credit AS (UPDATE students SET total_credits = total_credits + (SELECT credits FROM c) " +
+               "WHERE id = (SELECT id FROM s) AND EXISTS (SELECT 1 FROM ins) " +
+               "AND EXISTS (SELECT 1 FROM seat UNION ALL SELECT 1 FROM unlimited) RETURNING id), " +
+               "wl AS (" +
+               "INSERT INTO course_waitlist (id, student_id, course_id, joined_at) " +
+               "SELECT nextval('course_waitlist_seq'), s.id, c.id, ? FROM s CROSS JOIN c " +
+               "WHERE c.capacity IS NOT NULL AND c.waitlist_enabled AND NOT EXISTS (SELECT 1 FROM seat) " +
+               "AND NOT EXISTS (SELECT 1 FROM existing) AND NOT EXISTS (SELECT 1 FROM waiting) " +
+               "ON CONFLICT (student_id, course_id) DO NOTHING " +
+               "RETURNING id) " +
+               "SELECT s.id AS student_pk, s.student_id AS student_code, c.id AS course_pk, " +
+               "ins.id AS registration_id, ins.registration_date, c.course_code, c.course_name, c.description, c.credits, c.capacity, " +
+               "EXISTS (SELECT 1 FROM seat) AS seat_taken, " +
+               "EXISTS (SELECT 1 FROM existing) AS already_registered, " +
+               "EXISTS (SELECT 1 FROM waiting) AS already_waitlisted, " +
+               "wl.id AS waitlist_id, " +
+               "CASE WHEN wl.id IS NOT NULL THEN CAST((SELECT count(*) FROM course_waitlist w " +
+               "WHERE w.course_id = c.id AND w.id < wl.id) + 1 AS integer) END AS waitlist_position " +
+               "FROM (SELECT 1) AS one " +
+               "LEFT JOIN s ON TRUE LEFT JOIN c ON TRUE LEFT JOIN ins ON TRUE LEFT JOIN wl ON TRUE";
+    }
+
+    /**
+     * Builds the unregister statement. The freed seat goes straight to the oldest waitlist
+     * entry nobody else is promoting (SKIP LOCKED); only when there is none is the seat
+     * counter incremented. Credits are moved only after the course row is updated, so the
+     * course row is always locked before student rows. The waitlist head is looked up by the
+     * deleted registration's course id, which idx_course_waitlist_course_id serves in id order.
+     */
+    private static String unregisterSql(String studentColumn, String courseColumn) {
+        return "WITH s AS (SELECT id, student_id FROM students WHERE " + studentColumn + " = ? AND deleted_at IS NULL), " +
+               "c AS (SELECT id, credits FROM courses WHERE " + courseColumn + " = ? AND deleted_at IS NULL), " +
+               "del AS (DELETE FROM course_registrations r USING s, c " +
+               "WHERE r.student_id = s.id AND r.course_id = c.id RETURNING r.course_id), " +
+               "left_wl AS (DELETE FROM course_waitlist w " +
+               "WHERE w.student_id = (SELECT id FROM s) AND w.course_id = (SELECT id FROM c) RETURNING w.id), " +
+               "next AS (SELECT w.id FROM course_waitlist w " +
+               "WHERE w.course_id = (SELECT course_id FROM del) AND w.student_id <> (SELECT id FROM s) " +
+               "ORDER BY w.id LIMIT 1 FOR UPDATE OF w SKIP LOCKED), " +
+               "promoted AS (DELETE FROM course_waitlist w USING next WHERE w.id = next.id " +
+               "RETURNING w.student_id, w.course_id), " +
+               "pins AS (INSERT INTO course_registrations (id, student_id, course_id, registration_date) " +
+               "SELECT nextval('course_registrations_seq'), student_id, course_id, ? FROM promoted " +
+               "ON CONFLICT (student_id, course_id) DO NOTHING RETURNING student_id), " +
+               "seat AS (UPDATE courses SET seats_available = CASE WHEN EXISTS (SELECT 1 FROM pins) " +
+               "THEN seats_available ELSE seats_available + 1 END, " +
+               "enrolled_count = enrolled_count - 1 + (SELECT count(*) FROM pins) " +
+               "WHERE id IN (SELECT course_id FROM del) RETURNING id), " +
+               "credit_delta AS (SELECT s.id, -c.credits AS delta FROM s, c WHERE EXISTS (SELECT 1 FROM seat) " +
+               "UNION ALL SELECT pins.student_id, c.credits FROM pins, c), " +
+               "students_locked AS MATERIALIZED (SELECT id FROM students WHERE id IN (SELECT id FROM credit_delta) " +
+               "ORDER BY id FOR NO KEY UPDATE), " +
+               "credit AS (UPDATE students st SET total_credits = st.total_credits + d.delta FROM credit_delta d " +
+               "WHERE st.id = d.id AND st.id IN (SELECT id FROM students_locked) RETURNING st.id) " +
+               "SELECT s.id AS student_pk, s.student_id AS student_code, c.id AS course_pk, " +
+               "EXISTS (SELECT 1 FROM del) AS unregistered, " +
+               "EXISTS (SELECT 1 FROM left_wl) AS left_waitlist, " +
+               "(SELECT student_id FROM pins) AS promoted_student_pk, " +
+               "(SELECT st.student_id FROM pins JOIN students st ON st.id = pins.student_id) AS promoted_student_code " +
+               "FROM (SELECT 1) AS one LEFT JOIN s ON TRUE LEFT JOIN c ON TRUE";
+    }
+
+    /**
+     * Outcome of a registration attempt, with the course details needed for the response
+     */
+    public record RegistrationResult(Long studentPk, String studentCode, Long coursePk, Long registrationId,
+                                     LocalDateTime registrationDate, String courseCode, String courseName,
+                                     String description, Integer credits, Integer capacity,
+                                     boolean seatTaken, boolean alreadyRegistered, boolean alreadyWaitlisted,
+                                     Long waitlistId, Integer waitlistPosition) {
+
+        public boolean studentFound() {
+            return studentPk != null;
+        }
+
+        public boolean courseFound() {
+            return coursePk != null;
+        }
+
+        public boolean created() {
+            return registrationId != null;
+        }
+
+        public boolean waitlisted() {
+            return waitlistId != null;
+        }
+    }
+
+    /**
+     * Outcome of an unregistration; the promoted student, if any, is the one who got the seat
+     */
+    public record UnregistrationResult(Long studentPk, String studentCode, Long coursePk, boolean unregistered,
+                                       boolean leftWaitlist, Long promotedStudentPk, String promotedStudentCode) {
+
+        public boolean studentFound() {
+            return studentPk != null;
+        }
+
+        public boolean courseFound() {
+            return coursePk != null;
+        }
+    }
+}
@@ -1,7 +1,12 @@
 package com.example.Student_Management_System.repository;
 
+import com.example.Student_Management_System.dto.CourseRegistrationResponseDTO;
+import com.example.Student_Management_System.dto.StudentResponseDTO;
 import com.example.Student_Management_System.entity.CourseRegistration;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -19,4 +24,33 @@ public interface CourseRegistrationRepository extends JpaRepository<CourseRegist
     Optional<CourseRegistration> findByStudentIdAndCourseId(Long studentId, Long courseId);
     
     void deleteByStudentIdAndCourseId(Long studentId, Long courseId);
+
+    /**
+     * Registered courses of a student (by STU... code) in one join, projected into DTOs
+     */
+    @Query("SELECT new com.example.Student_Management_System.dto.CourseRegistrationResponseDTO(" +
+           "r.id, c.courseCode, c.courseName, c.description, c.credits, r.registrationDate) " +
+           "FROM CourseRegistration r JOIN r.course c JOIN r.student s " +
+           "WHERE s.studentId = :studentId ORDER BY r.id")
+    List<CourseRegistrationResponseDTO> findCoursesByStudentCode(@Param("studentId") String studentId);
+
+    /**
+     * Registered courses of a student (by primary key) in one join, projected into DTOs
+     */
+    @Query("SELECT new com.example.Student_Management_System.dto.CourseRegistrationResponseDTO(" +
+           "r.id, c.courseCode, c.courseName, c.description, c.credits, r.registrationDate) " +
+           "FROM CourseRegistration r JOIN r.course c " +
+           "WHERE r.student.id = :studentId ORDER BY r.id")
+    List<CourseRegistrationResponseDTO> findCoursesByStudentId(@Param("studentId") Long studentId);
+
+    /**
+     * One roster page: students of the course with id greater than {@code after}, in id
+     * order. Walks idx_course_registrations_course_id, so every page costs the same.
+     */
+    @Query("SELECT new com.example.Student_Management_System.dto.StudentResponseDTO(" +
+           "s.id, s.firstName, s.lastName, s.email, s.studentId, s.totalCredits) " +
+           "FROM CourseRegistration r JOIN r.student s JOIN r.course c " +
+           "WHERE c.courseCode = :courseCode AND r.student.id > :after ORDER BY r.student.id")
+    List<StudentResponseDTO> findRosterPageAfter(@Param("courseCode") String courseCode,
+                                                 @Param("after") Long after, Limit limit);
 }
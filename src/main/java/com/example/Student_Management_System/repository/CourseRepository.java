@@ -1,15 +1,29 @@
 package com.example.Student_Management_System.repository;
 
+import com.example.Student_Management_System.dto.CourseResponseDTO;
 import com.example.Student_Management_System.entity.Course;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
+import java.util.List;
 
 @Repository
-public interface CourseRepository extends JpaRepository<Course, Long> {
+public interface CourseRepository extends NaturalIdRepository<Course, Long> {
     
-    Optional<Course> findByCourseCode(String courseCode);
-    
-    boolean existsByCourseCode(String courseCode);
+    /**
+     * Also counts courses awaiting purge, whose codes are still held by the unique constraint
+     */
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM courses WHERE course_code = :courseCode)", nativeQuery = true)
+    boolean existsByCourseCode(@Param("courseCode") String courseCode);
+
+    // Has its own transaction, as the catalog reads calling it on a snapshot miss run without one
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.example.Student_Management_System.dto.CourseResponseDTO(" +
+           "c.id, c.courseCode, c.courseName, c.description, c.credits, " +
+           "c.capacity, c.seatsAvailable, c.waitlistEnabled, c.enrolledCount) " +
+           "FROM Course c WHERE c.id > :after ORDER BY c.id")
+    List<CourseResponseDTO> findPageAfter(@Param("after") Long after, Limit limit);
 }
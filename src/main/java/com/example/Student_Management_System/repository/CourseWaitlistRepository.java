@@ -0,0 +1,11 @@
+package com.example.Student_Management_System.repository;
+
+import com.example.Student_Management_System.entity.CourseWaitlistEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CourseWaitlistRepository extends JpaRepository<CourseWaitlistEntry, Long> {
+
+    long countByCourseId(Long courseId);
+}
@@ -0,0 +1,193 @@
+package com.example.Student_Management_System.repository;
+
+import com.example.Student_Management_System.entity.Course;
+import com.example.Student_Management_System.entity.Student;
+import com.example.Student_Management_System.entity.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Array;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Set-based chunk deletes for courses and students marked deleted. Every method removes at
+ * most {@code limit} rows in its own transaction, so row locks and WAL per commit stay
+ * bounded however many registrations hang off a deleted row. Deleted rows left the
+ * second-level cache when they were marked; what is evicted here are the counters of live
+ * rows and the natural-id mappings of purged ones, whose keys may then be reused.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DeletionPurgeJdbcRepository {
+
+    // Students keep the credits of a deleted course until its registrations are purged
+    private static final String PURGE_COURSE_REGISTRATIONS =
+            "WITH del AS (DELETE FROM course_registrations WHERE id IN (SELECT r.id FROM course_registrations r " +
+            "JOIN courses c ON c.id = r.course_id WHERE c.deleted_at IS NOT NULL LIMIT ?) " +
+            "RETURNING student_id, course_id), " +
+            "lost AS (SELECT del.student_id, sum(c.credits) AS credits FROM del " +
+            "JOIN courses c ON c.id = del.course_id GROUP BY del.student_id), " +
+            "locked AS MATERIALIZED (SELECT id FROM students WHERE id IN (SELECT student_id FROM lost) " +
+            "ORDER BY id FOR NO KEY UPDATE), " +
+            "credit AS (UPDATE students st SET total_credits = st.total_credits - l.credits FROM lost l " +
+            "WHERE st.id = l.student_id AND st.id IN (SELECT id FROM locked) RETURNING st.id) " +
+            "SELECT count(*) FROM del";
+
+    private static final String PURGE_COURSE_WAITLIST =
+            "DELETE FROM course_waitlist WHERE id IN (SELECT w.id FROM course_waitlist w " +
+            "JOIN courses c ON c.id = w.course_id WHERE c.deleted_at IS NOT NULL LIMIT ?)";
+
+    static final String PURGE_COURSES =
+            "DELETE FROM courses WHERE id IN (SELECT c.id FROM courses c WHERE c.deleted_at IS NOT NULL " +
+            "AND NOT EXISTS (SELECT 1 FROM course_registrations r WHERE r.course_id = c.id) " +
+            "AND NOT EXISTS (SELECT 1 FROM course_waitlist w WHERE w.course_id = c.id) LIMIT ?)";
+
+    // Seats and enrolments of a deleted student go back to their (live) courses. Course
+    // rows are locked in id order first, like the multi-course register statement, so the
+    // two can't deadlock.
+    private static final String PURGE_STUDENT_REGISTRATIONS =
+            "WITH del AS (DELETE FROM course_registrations WHERE id IN (SELECT r.id FROM course_registrations r " +
+            "JOIN students s ON s.id = r.student_id WHERE s.deleted_at IS NOT NULL LIMIT ?) RETURNING course_id), " +
+            "freed AS (SELECT course_id, count(*) AS seats FROM del GROUP BY course_id), " +
+            "locked AS MATERIALIZED (SELECT id FROM courses WHERE id IN (SELECT course_id FROM freed) " +
+            "AND deleted_at IS NULL ORDER BY id FOR NO KEY UPDATE), " +
+            "seat AS (UPDATE courses c SET seats_available = c.seats_available + f.seats, " +
+            "enrolled_count = c.enrolled_count - f.seats FROM freed f " +
+            "WHERE c.id = f.course_id AND c.id IN (SELECT id FROM locked) RETURNING c.id, c.seats_available) " +
+            "SELECT (SELECT count(*) FROM del) AS purged, " +
+            "ARRAY(SELECT id FROM seat WHERE seats_available IS NOT NULL ORDER BY id) AS freed_courses";
+
+    private static final String PURGE_STUDENT_WAITLIST =
+            "DELETE FROM course_waitlist WHERE id IN (SELECT w.id FROM course_waitlist w " +
+            "JOIN students s ON s.id = w.student_id WHERE s.deleted_at IS NOT NULL LIMIT ?)";
+
+    // The linked login goes with the student row
+    static final String PURGE_STUDENTS =
+            "WITH st AS (DELETE FROM students WHERE id IN (SELECT s.id FROM students s WHERE s.deleted_at IS NOT NULL " +
+            "AND NOT EXISTS (SELECT 1 FROM course_registrations r WHERE r.student_id = s.id) " +
+            "AND NOT EXISTS (SELECT 1 FROM course_waitlist w WHERE w.student_id = s.id) LIMIT ?) RETURNING user_id), " +
+            "u AS (DELETE FROM users WHERE id IN (SELECT user_id FROM st) RETURNING id) " +
+            "SELECT (SELECT count(*) FROM st) AS students, (SELECT count(*) FROM u) AS users";
+
+    static final String PURGE_USERS =
+            "DELETE FROM users WHERE id IN (SELECT u.id FROM users u WHERE u.deleted_at IS NOT NULL " +
+            "AND NOT EXISTS (SELECT 1 FROM students s WHERE s.user_id = u.id) LIMIT ?)";
+
+    private static final String PENDING =
+            "SELECT (SELECT count(*) FROM courses WHERE deleted_at IS NOT NULL) AS courses, " +
+            "(SELECT count(*) FROM students WHERE deleted_at IS NOT NULL) AS students, " +
+            "(SELECT count(*) FROM users WHERE deleted_at IS NOT NULL) AS users, " +
+            "(SELECT count(*) FROM course_registrations r WHERE EXISTS (SELECT 1 FROM courses c " +
+            "WHERE c.id = r.course_id AND c.deleted_at IS NOT NULL) OR EXISTS (SELECT 1 FROM students s " +
+            "WHERE s.id = r.student_id AND s.deleted_at IS NOT NULL)) AS registrations, " +
+            "(SELECT count(*) FROM course_waitlist w WHERE EXISTS (SELECT 1 FROM courses c " +
+            "WHERE c.id = w.course_id AND c.deleted_at IS NOT NULL) OR EXISTS (SELECT 1 FROM students s " +
+            "WHERE s.id = w.student_id AND s.deleted_at IS NOT NULL)) AS waitlist_entries";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SecondLevelCache secondLevelCache;
+
+    /**
+     * Deletes registrations of deleted courses and takes the credits off their students
+     */
+    @Transactional
+    public int purgeCourseRegistrations(int limit) {
+        Integer purged = jdbcTemplate.queryForObject(PURGE_COURSE_REGISTRATIONS, Integer.class, limit);
+        if (purged != null && purged > 0) {
+            secondLevelCache.evictAll(Student.class);
+        }
+        return purged != null ? purged : 0;
+    }
+
+    @Transactional
+    public int purgeCourseWaitlist(int limit) {
+        return jdbcTemplate.update(PURGE_COURSE_WAITLIST, limit);
+    }
+
+    @Transactional
+    public int purgeCourses(int limit) {
+        int purged = jdbcTemplate.update(PURGE_COURSES, limit);
+        if (purged > 0) {
+            secondLevelCache.evictNaturalIds(Course.class);
+        }
+        return purged;
+    }
+
+    /**
+     * Deletes registrations of deleted students and returns their seats to the courses
+     */
+    @Transactional
+    public StudentRegistrationPurge purgeStudentRegistrations(int limit) {
+        StudentRegistrationPurge purge = jdbcTemplate.queryForObject(PURGE_STUDENT_REGISTRATIONS, (rs, rowNum) ->
+                new StudentRegistrationPurge(rs.getInt("purged"), toLongs(rs.getArray("freed_courses"))), limit);
+        if (purge.purged() > 0) {
+            // Unlimited courses only lose enrolments and aren't among the freed ones
+            secondLevelCache.evictAll(Course.class);
+        }
+        return purge;
+    }
+
+    @Transactional
+    public int purgeStudentWaitlist(int limit) {
+        return jdbcTemplate.update(PURGE_STUDENT_WAITLIST, limit);
+    }
+
+    /**
+     * Deletes students with no registrations or waitlist entries left, and their users
+     */
+    @Transactional
+    public StudentPurge purgeStudents(int limit) {
+        StudentPurge purge = jdbcTemplate.queryForObject(PURGE_STUDENTS, (rs, rowNum) ->
+                new StudentPurge(rs.getInt("students"), rs.getInt("users")), limit);
+        if (purge.students() > 0) {
+            secondLevelCache.evictNaturalIds(Student.class);
+            secondLevelCache.evictNaturalIds(User.class);
+        }
+        return purge;
+    }
+
+    /**
+     * Deletes users marked deleted that no student points at any more
+     */
+    @Transactional
+    public int purgeUsers(int limit) {
+        int purged = jdbcTemplate.update(PURGE_USERS, limit);
+        if (purged > 0) {
+            secondLevelCache.evictNaturalIds(User.class);
+        }
+        return purged;
+    }
+
+    public PendingPurge pending() {
+        return jdbcTemplate.queryForObject(PENDING, (rs, rowNum) -> new PendingPurge(
+                rs.getLong("courses"), rs.getLong("students"), rs.getLong("users"),
+                rs.getLong("registrations"), rs.getLong("waitlist_entries")));
+    }
+
+    private static List<Long> toLongs(Array array) throws SQLException {
+        try {
+            return Arrays.stream((Long[]) array.getArray()).toList();
+        } finally {
+            array.free();
+        }
+    }
+
+    /**
+     * Registrations removed from deleted students, and the courses that got seats back
+     */
+    public record StudentRegistrationPurge(int purged, List<Long> freedCourseIds) {
+    }
+
+    public record StudentPurge(int students, int users) {
+    }
+
+    /**
+     * Rows still waiting to be purged
+     */
+    public record PendingPurge(long courses, long students, long users, long registrations, long waitlistEntries) {
+    }
+}
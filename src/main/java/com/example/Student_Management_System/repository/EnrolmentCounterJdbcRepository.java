@@ -0,0 +1,116 @@
+package com.example.Student_Management_System.repository;
+
+import com.example.Student_Management_System.entity.Course;
+import com.example.Student_Management_System.entity.Student;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+
+/**
+ * Checks {@code courses.enrolled_count}, {@code courses.seats_available} and
+ * {@code students.total_credits} against the registrations they summarise, a chunk of rows
+ * at a time.
+ *
+ * A chunk is locked first and recounted by a second statement. Every statement that changes
+ * registrations also updates the counter rows, so it has to wait for the lock, and the
+ * recount's snapshot, taken after the lock, includes everything committed before it.
+ */
+@Repository
+@RequiredArgsConstructor
+public class EnrolmentCounterJdbcRepository {
+
+    private static final String LOCK_COURSES =
+            "SELECT id FROM courses WHERE id > ? AND deleted_at IS NULL ORDER BY id LIMIT ? FOR NO KEY UPDATE";
+
+    // Free seats of a limited course are recomputed from the same recount; x.seats is the
+    // value before the repair, so courses that gained seats can be offered to the waitlist
+    private static final String REPAIR_COURSES =
+            "UPDATE courses c SET enrolled_count = x.enrolled, " +
+            "seats_available = CASE WHEN c.capacity IS NULL THEN c.seats_available ELSE c.capacity - x.enrolled END " +
+            "FROM (SELECT co.id, co.seats_available AS seats, " +
+            "(SELECT count(*) FROM course_registrations r WHERE r.course_id = co.id) AS enrolled " +
+            "FROM courses co WHERE co.id = ANY (?)) x " +
+            "WHERE c.id = x.id AND (c.enrolled_count <> x.enrolled " +
+            "OR (c.capacity IS NOT NULL AND c.seats_available IS DISTINCT FROM c.capacity - x.enrolled)) " +
+            "RETURNING c.id, c.seats_available > 0 AND c.seats_available > COALESCE(x.seats, 0) AS freed";
+
+    private static final String LOCK_STUDENTS =
+            "SELECT id FROM students WHERE id > ? AND deleted_at IS NULL ORDER BY id LIMIT ? FOR NO KEY UPDATE";
+
+    // Credits of courses awaiting purge still count until their registrations are purged
+    private static final String REPAIR_STUDENTS =
+            "UPDATE students s SET total_credits = x.credits FROM (SELECT st.id, " +
+            "(SELECT COALESCE(sum(co.credits), 0) FROM course_registrations r JOIN courses co ON co.id = r.course_id " +
+            "WHERE r.student_id = st.id) AS credits FROM students st WHERE st.id = ANY (?)) x " +
+            "WHERE s.id = x.id AND s.total_credits <> x.credits RETURNING s.id, false AS freed";
+
+    private static final String TOTALS =
+            "SELECT c.courses, c.full_courses, c.enrolments, c.largest, s.students, s.average_credits, s.max_credits " +
+            "FROM (SELECT count(*) AS courses, " +
+            "count(*) FILTER (WHERE capacity IS NOT NULL AND seats_available <= 0) AS full_courses, " +
+            "COALESCE(sum(enrolled_count), 0) AS enrolments, COALESCE(max(enrolled_count), 0) AS largest " +
+            "FROM courses WHERE deleted_at IS NULL) c, " +
+            "(SELECT count(*) AS students, COALESCE(avg(total_credits), 0) AS average_credits, " +
+            "COALESCE(max(total_credits), 0) AS max_credits FROM students WHERE deleted_at IS NULL) s";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SecondLevelCache secondLevelCache;
+
+    /**
+     * Recounts the enrolments and free seats of up to {@code limit} courses with id greater
+     * than {@code afterId}; courses that gained free seats are returned for promotion
+     */
+    @Transactional
+    public ChunkResult reconcileCourses(long afterId, int limit) {
+        return reconcile(LOCK_COURSES, REPAIR_COURSES, Course.class, afterId, limit);
+    }
+
+    /**
+     * Recounts the credit totals of up to {@code limit} students with id greater than {@code afterId}
+     */
+    @Transactional
+    public ChunkResult reconcileStudents(long afterId, int limit) {
+        return reconcile(LOCK_STUDENTS, REPAIR_STUDENTS, Student.class, afterId, limit);
+    }
+
+    public Totals totals() {
+        return jdbcTemplate.queryForObject(TOTALS, (rs, rowNum) -> new Totals(
+                rs.getLong("courses"), rs.getLong("full_courses"), rs.getLong("enrolments"), rs.getInt("largest"),
+                rs.getLong("students"), rs.getDouble("average_credits"), rs.getInt("max_credits")));
+    }
+
+    private ChunkResult reconcile(String lockSql, String repairSql, Class<?> entityType, long afterId, int limit) {
+        List<Long> ids = jdbcTemplate.queryForList(lockSql, Long.class, afterId, limit);
+        if (ids.isEmpty()) {
+            return new ChunkResult(0, 0, afterId, List.of());
+        }
+        List<Repair> repairs = jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(repairSql);
+            ps.setArray(1, con.createArrayOf("bigint", ids.toArray()));
+            return ps;
+        }, (rs, rowNum) -> new Repair(rs.getLong("id"), rs.getBoolean("freed")));
+        if (!repairs.isEmpty()) {
+            secondLevelCache.evictAll(entityType);
+        }
+        List<Long> freed = repairs.stream().filter(Repair::freed).map(Repair::id).sorted().toList();
+        return new ChunkResult(ids.size(), repairs.size(), ids.get(ids.size() - 1), freed);
+    }
+
+    private record Repair(long id, boolean freed) {
+    }
+
+    /**
+     * Rows checked and repaired in one chunk; {@code lastId} is the cursor for the next one
+     * and {@code freedCourseIds} the repaired courses that now have more free seats
+     */
+    public record ChunkResult(int checked, int repaired, long lastId, List<Long> freedCourseIds) {
+    }
+
+    public record Totals(long courses, long fullCourses, long enrolments, int largestEnrolment,
+                         long students, double averageCredits, int maxCredits) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.Student_Management_System.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.repository.NoRepositoryBean;
+
+import java.util.Optional;
+
+/**
+ * Repositories of entities with a cached {@code @NaturalId}. Lookups go through Hibernate's
+ * natural-id resolution, so a hit in the natural-id and entity regions needs no query.
+ */
+@NoRepositoryBean
+public interface NaturalIdRepository<T, ID> extends JpaRepository<T, ID> {
+
+    Optional<T> findBySimpleNaturalId(Object naturalId);
+}
@@ -0,0 +1,112 @@
+package com.example.Student_Management_System.repository;
+
+import com.example.Student_Management_System.dto.EntityCacheStatsDTO;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Keeps Hibernate's second-level cache in step with writes Hibernate doesn't see: the JDBC
+ * repositories update counters, and soft deletes and purges hide or remove rows.
+ *
+ * Evictions run once the surrounding transaction has completed. Evicting earlier would let
+ * a concurrent load put the old row straight back; a load that races the commit itself can
+ * still do so, which the regions' expire-after-write (application.conf) bounds.
+ */
+@Component
+@RequiredArgsConstructor
+public class SecondLevelCache {
+
+    private static final String STATISTICS_BEANS = "javax.cache:type=CacheStatistics,*";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Evicts the given rows of an entity; null ids are skipped
+     */
+    public void evict(Class<?> entityType, Long... ids) {
+        afterCompletion(() -> {
+            Cache cache = cache();
+            for (Long id : ids) {
+                if (id != null) {
+                    cache.evictEntityData(entityType, id);
+                }
+            }
+        });
+    }
+
+    public void evict(Class<?> entityType, List<Long> ids) {
+        evict(entityType, ids.toArray(Long[]::new));
+    }
+
+    /**
+     * Evicts every cached row of an entity, for changes whose rows aren't known
+     */
+    public void evictAll(Class<?> entityType) {
+        afterCompletion(() -> cache().evictEntityData(entityType));
+    }
+
+    /**
+     * Evicts the natural-id mappings of an entity, e.g. once rows were deleted with JDBC
+     * and their keys may be reused
+     */
+    public void evictNaturalIds(Class<?> entityType) {
+        afterCompletion(() -> cache().evictNaturalIdData(entityType));
+    }
+
+    /**
+     * Per-region statistics, read from the JCache statistics MBeans
+     */
+    public List<EntityCacheStatsDTO> stats() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        List<EntityCacheStatsDTO> stats = new ArrayList<>();
+        try {
+            for (ObjectName name : server.queryNames(new ObjectName(STATISTICS_BEANS), null)) {
+                long hits = (Long) server.getAttribute(name, "CacheHits");
+                long misses = (Long) server.getAttribute(name, "CacheMisses");
+                stats.add(EntityCacheStatsDTO.builder()
+                        .region(name.getKeyProperty("Cache"))
+                        .hitCount(hits)
+                        .missCount(misses)
+                        .hitRate(hits + misses == 0 ? 1.0 : (double) hits / (hits + misses))
+                        .putCount((Long) server.getAttribute(name, "CachePuts"))
+                        .removalCount((Long) server.getAttribute(name, "CacheRemovals"))
+                        .evictionCount((Long) server.getAttribute(name, "CacheEvictions"))
+                        .build());
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not read second-level cache statistics", e);
+        }
+        stats.sort(Comparator.comparing(EntityCacheStatsDTO::getRegion));
+        return stats;
+    }
+
+    private Cache cache() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    private static void afterCompletion(Runnable eviction) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                eviction.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.Student_Management_System.repository;
+
+import com.example.Student_Management_System.dto.SlowQueryDTO;
+import com.example.Student_Management_System.dto.SlowQueryStatsDTO;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Times every JDBC statement (the DataSource is proxied in DataSourceProxyConfig) and logs
+ * those over {@code slow-query.threshold}, plus a {@code sample-rate} fraction of the rest,
+ * to the {@code slow-query} logger, which logback-spring.xml writes asynchronously.
+ *
+ * The slowest {@code top-size} statements of the last {@code top-window} are kept for the
+ * admin endpoint. A statement faster than all of them only costs a counter increment; SQL
+ * normalisation and the stack walk for the caller are done for logged or kept ones only.
+ */
+@Component
+@Slf4j(topic = "slow-query")
+public class SlowQueryLog implements QueryExecutionListener {
+
+    private static final String BASE_PACKAGE = "com.example.Student_Management_System.";
+    private static final String REPOSITORY_PACKAGE = BASE_PACKAGE + "repository.";
+    private static final int MAX_SQL_LENGTH = 2000;
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\?(?:\\s*,\\s*\\?)+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final long thresholdMillis;
+    private final double sampleRate;
+    private final int topSize;
+    private final long topWindowMillis;
+
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder slowStatements = new LongAdder();
+
+    // Guarded by this. Until it is full the floor is -1, so every statement is a candidate
+    private final List<TopEntry> slowest = new ArrayList<>();
+    private volatile long floorMillis = -1;
+    private volatile long floorValidUntil = Long.MAX_VALUE;
+
+    public SlowQueryLog(@Value("${slow-query.threshold:200ms}") Duration threshold,
+                        @Value("${slow-query.sample-rate:0}") double sampleRate,
+                        @Value("${slow-query.top-size:20}") int topSize,
+                        @Value("${slow-query.top-window:1h}") Duration topWindow) {
+        this.thresholdMillis = threshold.toMillis();
+        this.sampleRate = sampleRate;
+        this.topSize = topSize;
+        this.topWindowMillis = topWindow.toMillis();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        statements.increment();
+        long elapsed = execInfo.getElapsedTime();
+        long now = System.currentTimeMillis();
+        boolean slow = elapsed >= thresholdMillis;
+        boolean sampled = !slow && sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+        boolean top = elapsed > floorMillis || now >= floorValidUntil;
+        if (!slow && !sampled && !top) {
+            return;
+        }
+
+        String sql = normalise(queryInfoList);
+        String caller = caller();
+        int batchSize = execInfo.isBatch() ? execInfo.getBatchSize() : 0;
+        if (slow) {
+            slowStatements.increment();
+            log.warn("Slow statement: {} ms in {}{}: {}", elapsed, caller, batchSuffix(batchSize), sql);
+        } else if (sampled) {
+            log.info("Sampled statement: {} ms in {}{}: {}", elapsed, caller, batchSuffix(batchSize), sql);
+        }
+        if (top) {
+            record(new TopEntry(now, SlowQueryDTO.builder()
+                    .sql(sql)
+                    .caller(caller)
+                    .elapsedMillis(elapsed)
+                    .batchSize(batchSize)
+                    .executedAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(now), ZoneId.systemDefault()))
+                    .build()), now);
+        }
+    }
+
+    public SlowQueryStatsDTO stats() {
+        List<SlowQueryDTO> top;
+        synchronized (this) {
+            expire(System.currentTimeMillis());
+            top = slowest.stream()
+                    .map(TopEntry::query)
+                    .sorted(Comparator.comparingLong(SlowQueryDTO::getElapsedMillis).reversed())
+                    .toList();
+        }
+        return SlowQueryStatsDTO.builder()
+                .thresholdMillis(thresholdMillis)
+                .sampleRate(sampleRate)
+                .statements(statements.sum())
+                .slowStatements(slowStatements.sum())
+                .slowest(top)
+                .build();
+    }
+
+    private synchronized void record(TopEntry entry, long now) {
+        expire(now);
+        if (slowest.size() < topSize) {
+            slowest.add(entry);
+        } else {
+            TopEntry fastest = slowest.stream().min(Comparator.comparingLong(e -> e.query().getElapsedMillis())).orElseThrow();
+            if (entry.query().getElapsedMillis() <= fastest.query().getElapsedMillis()) {
+                return;
+            }
+            slowest.remove(fastest);
+            slowest.add(entry);
+        }
+        updateFloor();
+    }
+
+    private void expire(long now) {
+        if (slowest.removeIf(e -> e.recordedAt() + topWindowMillis <= now)) {
+            updateFloor();
+        }
+    }
+
+    private void updateFloor() {
+        if (slowest.size() < topSize) {
+            floorMillis = -1;
+            floorValidUntil = Long.MAX_VALUE;
+            return;
+        }
+        floorMillis = slowest.stream().mapToLong(e -> e.query().getElapsedMillis()).min().orElse(-1);
+        // Once the oldest entry expires there is room again
+        floorValidUntil = slowest.stream().mapToLong(TopEntry::recordedAt).min().orElse(0) + topWindowMillis;
+    }
+
+    private static String normalise(List<QueryInfo> queryInfoList) {
+        String sql = queryInfoList.stream().map(QueryInfo::getQuery).distinct().collect(Collectors.joining("; "));
+        sql = STRING_LITERAL.matcher(sql).replaceAll("?");
+        sql = NUMBER_LITERAL.matcher(sql).replaceAll("?");
+        sql = PARAMETER_LIST.matcher(sql).replaceAll("?, ...");
+        sql = WHITESPACE.matcher(sql).replaceAll(" ").trim();
+        return sql.length() > MAX_SQL_LENGTH ? sql.substring(0, MAX_SQL_LENGTH) + "..." : sql;
+    }
+
+    /**
+     * The innermost repository method on the stack, or the innermost application method when
+     * the statement comes from a Spring Data proxy
+     */
+    private static String caller() {
+        List<StackWalker.StackFrame> frames = StackWalker.getInstance().walk(stack -> stack
+                .filter(f -> f.getClassName().startsWith(BASE_PACKAGE)
+                        && !f.getClassName().equals(SlowQueryLog.class.getName())
+                        && !f.getClassName().contains("$$"))
+                .limit(8)
+                .toList());
+        return frames.stream()
+                .filter(f -> f.getClassName().startsWith(REPOSITORY_PACKAGE))
+                .findFirst()
+                .or(() -> frames.stream().findFirst())
+                .map(f -> f.getClassName().substring(f.getClassName().lastIndexOf('.') + 1) + "." + f.getMethodName())
+                .orElse("unknown");
+    }
+
+    private static String batchSuffix(int batchSize) {
+        return batchSize > 0 ? " (batch of " + batchSize + ")" : "";
+    }
+
+    private record TopEntry(long recordedAt, SlowQueryDTO query) {
+    }
+}
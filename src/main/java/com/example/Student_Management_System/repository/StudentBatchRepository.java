@@ -0,0 +1,82 @@
+package com.example.Student_Management_System.repository;
+
+import com.example.Student_Management_System.entity.Student;
+import com.example.Student_Management_System.entity.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC batch writes for bulk student onboarding, bypassing per-entity INSERTs.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StudentBatchRepository {
+
+    private static final int BATCH_SIZE = 500;
+
+    // Must match allocationSize on the entities' @SequenceGenerator and INCREMENT BY in V1__baseline_schema.sql
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final String INSERT_USER =
+            "INSERT INTO users (id, email, password, role) VALUES (?, ?, ?, ?)";
+
+    private static final String INSERT_STUDENT =
+            "INSERT INTO students (id, first_name, last_name, email, student_id, user_id) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts each user and its student in JDBC batches within one transaction. Ids are
+     * reserved up front from the entities' pooled sequences, so the rows need no
+     * generated-key round trips and the student can reference its user directly.
+     */
+    @Transactional
+    public void insertUsersWithStudents(List<User> users, List<Student> students) {
+        List<Long> userIds = reserveIds("users_seq", users.size());
+        List<Long> studentIds = reserveIds("students_seq", students.size());
+        for (int i = 0; i < users.size(); i++) {
+            users.get(i).setId(userIds.get(i));
+            students.get(i).setId(studentIds.get(i));
+            students.get(i).setUserId(userIds.get(i));
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_USER, users, BATCH_SIZE, (ps, user) -> {
+            ps.setLong(1, user.getId());
+            ps.setString(2, user.getEmail());
+            ps.setString(3, user.getPassword());
+            ps.setString(4, user.getRole().name());
+        });
+
+        jdbcTemplate.batchUpdate(INSERT_STUDENT, students, BATCH_SIZE, (ps, student) -> {
+            ps.setLong(1, student.getId());
+            ps.setString(2, student.getFirstName());
+            ps.setString(3, student.getLastName());
+            ps.setString(4, student.getEmail());
+            ps.setString(5, student.getStudentId());
+            ps.setLong(6, student.getUserId());
+        });
+    }
+
+    /**
+     * Reserves {@code count} ids in one round trip. Each nextval on a pooled sequence is the
+     * top of a block Hibernate will never hand out, so the whole block is ours to use.
+     */
+    private List<Long> reserveIds(String sequence, int count) {
+        int blocks = (count + ALLOCATION_SIZE - 1) / ALLOCATION_SIZE;
+        List<Long> blockEnds = jdbcTemplate.queryForList(
+                "SELECT nextval('" + sequence + "') FROM generate_series(1, ?)", Long.class, blocks);
+
+        List<Long> ids = new ArrayList<>(count);
+        for (Long hi : blockEnds) {
+            for (long id = hi - ALLOCATION_SIZE + 1; id <= hi && ids.size() < count; id++) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+}
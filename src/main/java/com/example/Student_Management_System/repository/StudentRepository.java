@@ -1,23 +1,55 @@
 package com.example.Student_Management_System.repository;
 
+import com.example.Student_Management_System.dto.StudentEnrolmentRowDTO;
+import com.example.Student_Management_System.dto.StudentResponseDTO;
 import com.example.Student_Management_System.entity.Student;
-import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface StudentRepository extends JpaRepository<Student, Long> {
+public interface StudentRepository extends NaturalIdRepository<Student, Long> {
     
     Optional<Student> findByEmail(String email);
     
-    Optional<Student> findByStudentId(String studentId);
-    
     Optional<Student> findByUserId(Long userId);
     
-    boolean existsByEmail(String email);
+    /**
+     * Case-insensitive; also counts students awaiting purge, whose emails are still held by
+     * the unique constraint
+     */
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM students WHERE lower(email) = lower(:email))", nativeQuery = true)
+    boolean existsByEmail(@Param("email") String email);
     
     boolean existsByStudentId(String studentId);
-    
-    Optional<Student> findTopByOrderByStudentIdDesc();
+
+    @Query("SELECT new com.example.Student_Management_System.dto.StudentResponseDTO(" +
+           "s.id, s.firstName, s.lastName, s.email, s.studentId, s.totalCredits) " +
+           "FROM Student s WHERE s.id > :after ORDER BY s.id")
+    List<StudentResponseDTO> findPageAfter(@Param("after") Long after, Limit limit);
+
+    /**
+     * Streams every student joined with their enrolments, ordered by student, through a
+     * forward-only cursor. Must be consumed inside a transaction and closed afterwards.
+     * Registrations in courses awaiting purge are left out.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.example.Student_Management_System.dto.StudentEnrolmentRowDTO(" +
+           "s.id, s.studentId, s.firstName, s.lastName, s.email, " +
+           "r.id, c.courseCode, c.courseName, c.description, c.credits, r.registrationDate) " +
+           "FROM Student s LEFT JOIN CourseRegistration r ON r.student = s " +
+           "AND r.course.id IN (SELECT co.id FROM Course co) LEFT JOIN r.course c " +
+           "ORDER BY s.id, r.id")
+    Stream<StudentEnrolmentRowDTO> streamAllWithEnrolments();
 }
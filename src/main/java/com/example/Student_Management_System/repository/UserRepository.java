@@ -1,19 +1,51 @@
 package com.example.Student_Management_System.repository;
 
+import com.example.Student_Management_System.dto.LoginAccountDTO;
 import com.example.Student_Management_System.entity.User;
 import com.example.Student_Management_System.enums.Role;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends NaturalIdRepository<User, Long> {
     
-    Optional<User> findByEmail(String email);
-    
-    boolean existsByEmail(String email);
+    /**
+     * Case-insensitive, like StudentRepository.existsByEmail
+     */
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM users WHERE lower(email) = lower(:email))", nativeQuery = true)
+    boolean existsByEmail(@Param("email") String email);
     
     List<User> findByRole(Role role);
+
+    /**
+     * Loads the user and its linked student in one query for the login path
+     */
+    @Query("SELECT new com.example.Student_Management_System.dto.LoginAccountDTO(" +
+           "u.id, u.email, u.password, u.role, s.id, s.studentId) " +
+           "FROM User u LEFT JOIN Student s ON s.userId = u.id WHERE u.email = :email")
+    Optional<LoginAccountDTO> findLoginAccountByEmail(@Param("email") String email);
+
+    /**
+     * Replaces a password hash only if it is still the one that was verified, so a
+     * concurrent password change is never overwritten by a rehash
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :newHash WHERE u.id = :id AND u.password = :oldHash")
+    int replacePasswordHash(@Param("id") Long id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
+
+    /**
+     * Returns the subset of the given lower-cased emails already used by a user or a
+     * student, compared case-insensitively
+     */
+    @Query(value = "SELECT lower(email) FROM users WHERE lower(email) IN (:emails) " +
+                   "UNION SELECT lower(email) FROM students WHERE lower(email) IN (:emails)", nativeQuery = true)
+    List<String> findRegisteredEmails(@Param("emails") Collection<String> emails);
 }
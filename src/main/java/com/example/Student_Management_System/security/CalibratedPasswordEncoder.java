@@ -0,0 +1,147 @@
+package com.example.Student_Management_System.security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BCrypt encoder whose work factor is calibrated at startup: the highest cost within
+ * [minCost, maxCost] whose hash fits the target latency on this hardware. Hashes below the
+ * configured upgrade floor report {@link #upgradeEncoding} so they get rehashed on next login.
+ * Hash and verify times are recorded as {@code security.bcrypt} timers.
+ */
+@Slf4j
+public class CalibratedPasswordEncoder implements PasswordEncoder {
+
+    private final int cost;
+    private final int upgradeFloor;
+    private final long targetMillis;
+    private final Map<Integer, Long> calibrationMillis;
+    private final BCryptPasswordEncoder delegate;
+
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+
+    public CalibratedPasswordEncoder(long targetMillis, int minCost, int maxCost, int upgradeFloor,
+                                     MeterRegistry meterRegistry) {
+        this.targetMillis = targetMillis;
+        this.upgradeFloor = upgradeFloor;
+        this.calibrationMillis = new LinkedHashMap<>();
+        this.cost = calibrate(targetMillis, minCost, maxCost);
+        this.delegate = new BCryptPasswordEncoder(cost);
+        this.encodeTimer = hashTimer("encode", meterRegistry);
+        this.matchesTimer = hashTimer("matches", meterRegistry);
+        Gauge.builder("security.bcrypt.cost", this, CalibratedPasswordEncoder::getCost)
+                .description("Calibrated BCrypt work factor")
+                .register(meterRegistry);
+        log.info("BCrypt cost calibrated to {} for a {} ms target (measured: {})", cost, targetMillis, calibrationMillis);
+    }
+
+    private static Timer hashTimer(String operation, MeterRegistry meterRegistry) {
+        return Timer.builder("security.bcrypt")
+                .description("BCrypt hash and verify time")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private int calibrate(long targetMillis, int minCost, int maxCost) {
+        // Warm up so the first measurement isn't dominated by JIT compilation
+        BCryptPasswordEncoder warmup = new BCryptPasswordEncoder(minCost);
+        warmup.encode("calibration");
+        warmup.encode("calibration");
+
+        int chosen = minCost;
+        for (int candidate = minCost; candidate <= maxCost; candidate++) {
+            long start = System.nanoTime();
+            new BCryptPasswordEncoder(candidate).encode("calibration");
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            calibrationMillis.put(candidate, elapsedMillis);
+
+            if (elapsedMillis > targetMillis) {
+                if (candidate == minCost) {
+                    log.warn("BCrypt cost {} takes {} ms, above the {} ms target; using the minimum", minCost, elapsedMillis, targetMillis);
+                }
+                break;
+            }
+            chosen = candidate;
+        }
+        return chosen;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return encodeTimer.record(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return matchesTimer.record(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * True when the hash is weaker than the upgrade floor. The floor is the same on every node,
+     * so nodes calibrated to different costs never rewrite each other's hashes; a node whose
+     * calibrated cost is below the floor only upgrades hashes weaker than its own cost.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        int hashCost = costOf(encodedPassword);
+        return hashCost > 0 && hashCost < Math.min(cost, upgradeFloor);
+    }
+
+    /**
+     * Extracts the cost from a $2a$NN$... hash, or returns -1 if it is not a BCrypt hash
+     */
+    public static int costOf(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7
+                || encodedPassword.charAt(0) != '$' || encodedPassword.charAt(3) != '$' || encodedPassword.charAt(6) != '$') {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(encodedPassword, 4, 6, 10);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    public int getUpgradeFloor() {
+        return upgradeFloor;
+    }
+
+    public long getTargetMillis() {
+        return targetMillis;
+    }
+
+    public Map<Integer, Long> getCalibrationMillis() {
+        return Collections.unmodifiableMap(calibrationMillis);
+    }
+
+    public long getEncodeCount() {
+        return encodeTimer.count();
+    }
+
+    public double getEncodeAverageMillis() {
+        return encodeTimer.mean(TimeUnit.MILLISECONDS);
+    }
+
+    public long getMatchesCount() {
+        return matchesTimer.count();
+    }
+
+    public double getMatchesAverageMillis() {
+        return matchesTimer.mean(TimeUnit.MILLISECONDS);
+    }
+}
@@ -1,37 +1,80 @@
 package com.example.Student_Management_System.security;
 
+import com.example.Student_Management_System.dto.CacheStatsDTO;
 import com.example.Student_Management_System.entity.User;
 import com.example.Student_Management_System.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.time.Duration;
 import java.util.Collection;
 import java.util.Collections;
 
 @Service
-@RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    // Immutable snapshots only: Spring Security erases credentials on the UserDetails it is
+    // handed, so a fresh UserDetails is built from the snapshot on every call
+    private final Cache<String, CachedUser> principalCache;
+
+    public CustomUserDetailsService(UserRepository userRepository,
+                                    VerifiedTokenCache verifiedTokenCache,
+                                    @Value("${security.principal-cache.max-size:10000}") long maxSize,
+                                    @Value("${security.principal-cache.ttl:5m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.principalCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+        CachedUser user = principalCache.get(email, key -> {
+            User entity = userRepository.findBySimpleNaturalId(key)
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + key));
+            return new CachedUser(entity.getEmail(), entity.getPassword(), getAuthorities(entity.getRole().name()));
+        });
 
         return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getEmail())
-                .password(user.getPassword())
-                .authorities(getAuthorities(user.getRole().name()))
+                .username(user.email())
+                .password(user.password())
+                .authorities(user.authorities())
                 .build();
     }
 
+    /**
+     * Drops cached security state for the user once the change that triggered the event has
+     * committed, so the next request reloads it from the users table.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserAccountChanged(UserAccountChangedEvent event) {
+        principalCache.invalidate(event.email());
+        verifiedTokenCache.invalidateEmail(event.email());
+    }
+
+    public CacheStatsDTO stats() {
+        return CacheStatsDTO.of("principals", principalCache.estimatedSize(), principalCache.stats());
+    }
+
     private Collection<? extends GrantedAuthority> getAuthorities(String role) {
         return Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role));
     }
+
+    private record CachedUser(String email, String password, Collection<? extends GrantedAuthority> authorities) {
+    }
 }
@@ -0,0 +1,15 @@
+package com.example.Student_Management_System.security;
+
+import java.security.Principal;
+
+/**
+ * Authenticated caller as described by the verified JWT. {@code studentId} (the numeric
+ * Student id) and {@code studentCode} (e.g. STU0000001) are null for non-student users.
+ */
+public record JwtPrincipal(String email, String role, Long studentId, String studentCode) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
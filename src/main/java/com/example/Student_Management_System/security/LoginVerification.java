@@ -0,0 +1,10 @@
+package com.example.Student_Management_System.security;
+
+/**
+ * Outcome of checking a login password. {@code rehashed} is set when the stored hash used
+ * an outdated BCrypt cost and should be replaced.
+ */
+public record LoginVerification(boolean matches, String rehashed) {
+
+    static final LoginVerification REJECTED = new LoginVerification(false, null);
+}
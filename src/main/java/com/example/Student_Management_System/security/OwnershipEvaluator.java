@@ -0,0 +1,37 @@
+package com.example.Student_Management_System.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ownership checks for @PreAuthorize SpEL expressions. Evaluated purely from the signed
+ * claims on the authenticated principal, so authorization never queries the database.
+ */
+@Component("ownership")
+public class OwnershipEvaluator {
+
+    /**
+     * Checks if the current authenticated user owns the student ID
+     */
+    public boolean isOwnId(Long id) {
+        JwtPrincipal principal = currentPrincipal();
+        return principal != null && id != null && id.equals(principal.studentId());
+    }
+
+    /**
+     * Checks if the current authenticated user owns the student ID (by string code)
+     */
+    public boolean isOwnStudentId(String studentId) {
+        JwtPrincipal principal = currentPrincipal();
+        return principal != null && studentId != null && studentId.equals(principal.studentCode());
+    }
+
+    private JwtPrincipal currentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return null;
+        }
+        return authentication.getPrincipal() instanceof JwtPrincipal principal ? principal : null;
+    }
+}
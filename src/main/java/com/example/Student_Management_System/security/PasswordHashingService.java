@@ -0,0 +1,142 @@
+package com.example.Student_Management_System.security;
+
+import com.example.Student_Management_System.dto.PasswordHashingStatsDTO;
+import com.example.Student_Management_System.exception.ServiceUnavailableException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs password hashing off the servlet threads. Bulk operations get a pool that can use
+ * every core; login verification gets its own smaller pool with a queue limit, so a login
+ * storm is turned away with 503s instead of starving the rest of the application.
+ */
+@Service
+@Slf4j
+public class PasswordHashingService {
+
+    private final CalibratedPasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor bulkExecutor;
+    private final ThreadPoolExecutor loginExecutor;
+    private final LongAdder rejectedLogins = new LongAdder();
+
+    // Compared against when the email is unknown, so missing users cost the same as wrong passwords
+    private final String dummyHash;
+
+    public PasswordHashingService(CalibratedPasswordEncoder passwordEncoder,
+                                  @Value("${security.password-hashing.bulk-threads:0}") int bulkThreads,
+                                  @Value("${security.password-hashing.login-threads:0}") int loginThreads,
+                                  @Value("${security.password-hashing.login-queue-capacity:200}") int loginQueueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+        this.dummyHash = passwordEncoder.encode("unused-dummy-password");
+
+        int threads = bulkThreads > 0 ? bulkThreads : Runtime.getRuntime().availableProcessors();
+        // Saturated pool falls back to the caller so a burst of bulk requests throttles itself
+        this.bulkExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 4), namedThreads("bulk-hash-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        log.info("Password hashing pool started with {} threads", threads);
+
+        // Leave at least half the cores for other traffic; overflow is rejected, not queued
+        int loginPoolSize = loginThreads > 0 ? loginThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.loginExecutor = new ThreadPoolExecutor(loginPoolSize, loginPoolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(loginQueueCapacity), namedThreads("login-hash-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        log.info("Login verification pool started with {} threads and a queue of {}", loginPoolSize, loginQueueCapacity);
+    }
+
+    /**
+     * Checks a login password on the login pool. A null hash (unknown user) is checked
+     * against a dummy hash and always fails. When the password matches a hash made with an
+     * outdated cost, the same task rehashes it so the caller can store the new hash.
+     * @throws ServiceUnavailableException if the login pool's queue is full
+     */
+    public LoginVerification verifyLogin(String rawPassword, String encodedPassword) {
+        String hash = encodedPassword != null ? encodedPassword : dummyHash;
+        LoginVerification result;
+        try {
+            result = CompletableFuture.supplyAsync(() -> {
+                if (!passwordEncoder.matches(rawPassword, hash)) {
+                    return LoginVerification.REJECTED;
+                }
+                String rehashed = passwordEncoder.upgradeEncoding(hash) ? passwordEncoder.encode(rawPassword) : null;
+                return new LoginVerification(true, rehashed);
+            }, loginExecutor).join();
+        } catch (RejectedExecutionException e) {
+            rejectedLogins.increment();
+            throw new ServiceUnavailableException("Too many login attempts in progress, please retry shortly");
+        }
+        return encodedPassword != null ? result : LoginVerification.REJECTED;
+    }
+
+    /**
+     * Encodes all passwords in parallel, returning hashes in the same order as the input.
+     */
+    public List<String> encodeAll(List<String> rawPasswords) {
+        int slices = Math.min(bulkExecutor.getMaximumPoolSize(), rawPasswords.size());
+        if (slices <= 1) {
+            return rawPasswords.stream().map(passwordEncoder::encode).toList();
+        }
+
+        // One task per slice keeps the number of queued tasks bounded by the pool size
+        int sliceSize = (rawPasswords.size() + slices - 1) / slices;
+        List<CompletableFuture<List<String>>> futures = new ArrayList<>(slices);
+        for (int from = 0; from < rawPasswords.size(); from += sliceSize) {
+            List<String> slice = rawPasswords.subList(from, Math.min(from + sliceSize, rawPasswords.size()));
+            futures.add(CompletableFuture.supplyAsync(
+                    () -> slice.stream().map(passwordEncoder::encode).toList(), bulkExecutor));
+        }
+
+        List<String> hashes = new ArrayList<>(rawPasswords.size());
+        for (CompletableFuture<List<String>> future : futures) {
+            hashes.addAll(future.join());
+        }
+        return hashes;
+    }
+
+    /**
+     * Calibrated cost, hash timings and login pool usage for sizing login capacity
+     */
+    public PasswordHashingStatsDTO stats() {
+        return PasswordHashingStatsDTO.builder()
+                .cost(passwordEncoder.getCost())
+                .targetMillis(passwordEncoder.getTargetMillis())
+                .calibrationMillis(passwordEncoder.getCalibrationMillis())
+                .encodeCount(passwordEncoder.getEncodeCount())
+                .encodeAverageMillis(passwordEncoder.getEncodeAverageMillis())
+                .matchesCount(passwordEncoder.getMatchesCount())
+                .matchesAverageMillis(passwordEncoder.getMatchesAverageMillis())
+                .loginThreads(loginExecutor.getMaximumPoolSize())
+                .loginActive(loginExecutor.getActiveCount())
+                .loginQueued(loginExecutor.getQueue().size())
+                .loginRejected(rejectedLogins.sum())
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        bulkExecutor.shutdown();
+        loginExecutor.shutdown();
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.Student_Management_System.security;
+
+/**
+ * Published when a student and its user are deleted, or when a password hash is upgraded
+ * at login, so cached security state for that email can be dropped.
+ */
+public record UserAccountChangedEvent(String email) {
+}
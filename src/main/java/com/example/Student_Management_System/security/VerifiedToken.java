@@ -0,0 +1,10 @@
+package com.example.Student_Management_System.security;
+
+import java.time.Instant;
+
+/**
+ * Immutable result of verifying a JWT once: the signature and expiry have been checked
+ * and the claims decoded, so callers never need to parse the token again.
+ */
+public record VerifiedToken(JwtPrincipal principal, Instant issuedAt, Instant expiresAt) {
+}
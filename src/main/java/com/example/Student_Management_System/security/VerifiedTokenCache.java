@@ -0,0 +1,76 @@
+package com.example.Student_Management_System.security;
+
+import com.example.Student_Management_System.dto.CacheStatsDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of already-verified bearer tokens, keyed by a SHA-256 digest of the token
+ * so raw tokens are never held. Each entry expires with the token's own {@code exp}.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final Cache<String, CachedAuthentication> cache;
+
+    public VerifiedTokenCache(@Value("${security.token-cache.max-size:10000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(Expiry.creating((String key, CachedAuthentication value) -> timeToLive(value)))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached authentication for the token, or verifies it with the supplier and
+     * caches the result. Failed verifications throw and are never cached.
+     */
+    public CachedAuthentication get(String token, Supplier<CachedAuthentication> verifier) {
+        return cache.get(digest(token), key -> verifier.get());
+    }
+
+    /**
+     * Drops every cached token belonging to the given user, e.g. after the user is deleted
+     */
+    public void invalidateEmail(String email) {
+        cache.asMap().values().removeIf(entry -> entry.token().principal().email().equals(email));
+    }
+
+    public CacheStatsDTO stats() {
+        return CacheStatsDTO.of("verified-tokens", cache.estimatedSize(), cache.stats());
+    }
+
+    private static Duration timeToLive(CachedAuthentication value) {
+        Instant expiresAt = value.token().expiresAt();
+        // Tokens without exp are still verified, just not cached
+        return expiresAt != null ? Duration.between(Instant.now(), expiresAt) : Duration.ZERO;
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * A verified token together with the authorities granted to its subject
+     */
+    public record CachedAuthentication(VerifiedToken token, Collection<? extends GrantedAuthority> authorities) {
+    }
+}
@@ -1,58 +1,63 @@
 package com.example.Student_Management_System.service;
 
+import com.example.Student_Management_System.dto.LoginAccountDTO;
 import com.example.Student_Management_System.dto.LoginRequestDTO;
 import com.example.Student_Management_System.dto.LoginResponseDTO;
-import com.example.Student_Management_System.entity.User;
-import com.example.Student_Management_System.repository.StudentRepository;
+import com.example.Student_Management_System.enums.Role;
 import com.example.Student_Management_System.repository.UserRepository;
 import com.example.Student_Management_System.security.JwtUtil;
+import com.example.Student_Management_System.security.LoginVerification;
+import com.example.Student_Management_System.security.PasswordHashingService;
+import com.example.Student_Management_System.security.UserAccountChangedEvent;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.stereotype.Service;
 
-import java.util.Optional;
-
 @Service
+@Timed(value = "app.service", histogram = true)
 @RequiredArgsConstructor
+@Slf4j
 public class AuthService {
 
     private final UserRepository userRepository;
-    private final StudentRepository studentRepository;
     private final JwtUtil jwtUtil;
-    private final AuthenticationManager authenticationManager;
+    private final PasswordHashingService passwordHashingService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public LoginResponseDTO login(LoginRequestDTO requestDTO) {
-        // Authenticate user
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        requestDTO.getEmail(),
-                        requestDTO.getPassword()
-                )
-        );
+        // Load user and linked student in one query
+        LoginAccountDTO account = userRepository.findLoginAccountByEmail(requestDTO.getEmail()).orElse(null);
+
+        // Verify password on the bounded login pool (unknown emails still pay for one hash)
+        LoginVerification verification = passwordHashingService.verifyLogin(
+                requestDTO.getPassword(), account != null ? account.getPassword() : null);
+        if (!verification.matches()) {
+            throw new BadCredentialsException("Invalid email or password");
+        }
 
-        // Load user
-        User user = userRepository.findByEmail(requestDTO.getEmail())
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + requestDTO.getEmail()));
+        // Store the hash again if it was made with a different cost than the calibrated one
+        if (verification.rehashed() != null
+                && userRepository.replacePasswordHash(account.getUserId(), account.getPassword(), verification.rehashed()) == 1) {
+            log.info("Rehashed password for user {} with the calibrated BCrypt cost", account.getUserId());
+            eventPublisher.publishEvent(new UserAccountChangedEvent(account.getEmail()));
+        }
 
-        // Generate JWT token
-        String token = jwtUtil.generateToken(user.getEmail(), user.getRole().name());
+        // Generate JWT token - student claims let ownership checks skip the database
+        String role = account.getRole().name();
+        String token = account.getRole() == Role.STUDENT && account.getStudentId() != null
+                ? jwtUtil.generateToken(account.getEmail(), role, account.getStudentId(), account.getStudentCode())
+                : jwtUtil.generateToken(account.getEmail(), role);
 
         // Build response - include studentId if user is a student
-        LoginResponseDTO.LoginResponseDTOBuilder responseBuilder = LoginResponseDTO.builder()
+        return LoginResponseDTO.builder()
                 .token(token)
-                .email(user.getEmail())
-                .role(user.getRole().name());
-
-        // If user is a student, find their student record and include studentId
-        if (user.getRole().name().equals("STUDENT")) {
-            studentRepository.findByUserId(user.getId())
-                    .ifPresent(student -> responseBuilder.studentId(student.getStudentId()));
-        }
-
-        return responseBuilder.build();
+                .email(account.getEmail())
+                .role(role)
+                .studentId(account.getRole() == Role.STUDENT ? account.getStudentCode() : null)
+                .build();
     }
 
     public Boolean validateToken(String token, String email) {
@@ -0,0 +1,124 @@
+package com.example.Student_Management_System.service;
+
+import com.example.Student_Management_System.dto.CacheStatsDTO;
+import com.example.Student_Management_System.dto.CourseResponseDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The whole live course catalog as one immutable snapshot, indexed by id and by course
+ * code. Readers only read a volatile field; a miss loads the catalog once, under a lock
+ * that commits of course changes also take, so a load that raced a change can't outlive
+ * the invalidation that follows it.
+ *
+ * Seat and enrolment counts move with every registration and are not invalidated here;
+ * they are as fresh as the last load, which CourseService repeats every
+ * {@code catalog-cache.refresh-interval}.
+ */
+@Component
+public class CourseCatalogCache {
+
+    private final int maxCourses;
+    private volatile Snapshot snapshot;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public CourseCatalogCache(@Value("${catalog-cache.max-courses:10000}") int maxCourses) {
+        this.maxCourses = maxCourses;
+    }
+
+    /**
+     * Returns the current snapshot, loading it on a miss. The loader is called with the
+     * number of rows to fetch (one more than fits) and must return live courses ordered by id.
+     */
+    public Snapshot get(Function<Integer, List<CourseResponseDTO>> loader) {
+        Snapshot current = snapshot;
+        if (current != null) {
+            hits.increment();
+            return current;
+        }
+        return load(loader, false);
+    }
+
+    /**
+     * Reloads the snapshot, e.g. to pick up seat counts
+     */
+    public Snapshot refresh(Function<Integer, List<CourseResponseDTO>> loader) {
+        return load(loader, true);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onCatalogChanged(CourseCatalogChangedEvent event) {
+        snapshot = null;
+        invalidations.increment();
+    }
+
+    public CacheStatsDTO stats() {
+        Snapshot current = snapshot;
+        long hitCount = hits.sum();
+        long missCount = loads.sum();
+        long requests = hitCount + missCount;
+        return CacheStatsDTO.builder()
+                .name("course-catalog")
+                .size(current != null ? current.courses().size() : 0)
+                .hitCount(hitCount)
+                .missCount(missCount)
+                .hitRate(requests == 0 ? 1.0 : (double) hitCount / requests)
+                .evictionCount(invalidations.sum())
+                .build();
+    }
+
+    private synchronized Snapshot load(Function<Integer, List<CourseResponseDTO>> loader, boolean force) {
+        // Check if another thread loaded it while this one waited
+        Snapshot current = snapshot;
+        if (current != null && !force) {
+            hits.increment();
+            return current;
+        }
+        if (!force) {
+            loads.increment();
+        }
+        snapshot = Snapshot.of(loader.apply(maxCourses + 1), maxCourses);
+        return snapshot;
+    }
+
+    /**
+     * Live courses ordered by id. If the catalog has more than {@code max-courses} rows
+     * nothing is held and {@code complete} is false; callers then go to the database.
+     * The DTOs are shared between requests and must not be modified.
+     */
+    public record Snapshot(boolean complete, List<CourseResponseDTO> courses, long[] ids,
+                           Map<Long, CourseResponseDTO> byId, Map<String, CourseResponseDTO> byCode) {
+
+        static Snapshot of(List<CourseResponseDTO> rows, int maxCourses) {
+            if (rows.size() > maxCourses) {
+                return new Snapshot(false, List.of(), new long[0], Map.of(), Map.of());
+            }
+            List<CourseResponseDTO> courses = List.copyOf(rows);
+            return new Snapshot(true, courses,
+                    courses.stream().mapToLong(CourseResponseDTO::getId).toArray(),
+                    courses.stream().collect(Collectors.toUnmodifiableMap(CourseResponseDTO::getId, c -> c)),
+                    courses.stream().collect(Collectors.toUnmodifiableMap(CourseResponseDTO::getCourseCode, c -> c)));
+        }
+
+        /**
+         * Up to {@code count} courses with id greater than {@code after}
+         */
+        public List<CourseResponseDTO> pageAfter(long after, int count) {
+            int from = Arrays.binarySearch(ids, after);
+            from = from >= 0 ? from + 1 : -from - 1;
+            return courses.subList(from, Math.min(from + count, courses.size()));
+        }
+    }
+}
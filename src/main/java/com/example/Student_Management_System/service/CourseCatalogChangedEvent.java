@@ -0,0 +1,8 @@
+package com.example.Student_Management_System.service;
+
+/**
+ * Published when a course is created, edited or deleted, so the catalog snapshot is
+ * rebuilt once the change commits
+ */
+public record CourseCatalogChangedEvent(Long courseId) {
+}
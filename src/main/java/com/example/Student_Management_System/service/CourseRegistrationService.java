@@ -1,172 +1,340 @@
 package com.example.Student_Management_System.service;
 
+import com.example.Student_Management_System.dto.BulkItemResultDTO;
+import com.example.Student_Management_System.dto.BulkOperationResponseDTO;
 import com.example.Student_Management_System.dto.CourseRegistrationResponseDTO;
-import com.example.Student_Management_System.entity.Course;
-import com.example.Student_Management_System.entity.CourseRegistration;
-import com.example.Student_Management_System.entity.Student;
+import com.example.Student_Management_System.enums.RegistrationStatus;
+import com.example.Student_Management_System.exception.CourseFullException;
 import com.example.Student_Management_System.exception.DuplicateResourceException;
 import com.example.Student_Management_System.exception.ResourceNotFoundException;
+import com.example.Student_Management_System.repository.CourseRegistrationJdbcRepository;
+import com.example.Student_Management_System.repository.CourseRegistrationJdbcRepository.RegistrationResult;
+import com.example.Student_Management_System.repository.CourseRegistrationJdbcRepository.UnregistrationResult;
 import com.example.Student_Management_System.repository.CourseRegistrationRepository;
-import com.example.Student_Management_System.repository.CourseRepository;
 import com.example.Student_Management_System.repository.StudentRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 @Service
+@Timed(value = "app.service", histogram = true)
 @RequiredArgsConstructor
 @Transactional
+@Slf4j
 public class CourseRegistrationService {
 
     private final CourseRegistrationRepository courseRegistrationRepository;
     private final StudentRepository studentRepository;
-    private final CourseRepository courseRepository;
+    private final CourseRegistrationJdbcRepository courseRegistrationJdbcRepository;
+    private final StudentEnrolmentCache studentEnrolmentCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
 
+    /**
+     * Registers the student, or waitlists them when the course is full and has a waitlist.
+     * Every failure is thrown, so the transaction rolls back and any seat the statement
+     * took in a race is returned with it.
+     */
     public CourseRegistrationResponseDTO registerForCourse(String studentId, String courseCode) {
-        // Check if student exists by studentId string
-        Student student = studentRepository.findByStudentId(studentId)
-                .orElseThrow(() -> new ResourceNotFoundException("Student", "studentId", studentId));
+        // Look up student and course, take a seat and insert in one statement
+        RegistrationResult result = courseRegistrationJdbcRepository.register(studentId, courseCode, LocalDateTime.now());
+        return resolveByCodes(result, studentId, courseCode);
+    }
 
-        // Check if course exists by courseCode string
-        Course course = courseRepository.findByCourseCode(courseCode)
-                .orElseThrow(() -> new ResourceNotFoundException("Course", "courseCode", courseCode));
+    /**
+     * Registers each (studentId, courseCode) pair in one transaction, so the whole batch
+     * costs a single commit. Failures are reported per item instead of thrown; nothing is
+     * rolled back, so a seat taken by an item that lost a race is released explicitly.
+     */
+    public List<BulkItemResultDTO<CourseRegistrationResponseDTO>> registerAll(List<RegistrationKey> keys) {
+        LocalDateTime now = LocalDateTime.now();
+        List<BulkItemResultDTO<CourseRegistrationResponseDTO>> results = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            RegistrationKey key = keys.get(i);
+            RegistrationResult result = courseRegistrationJdbcRepository.register(key.studentId(), key.courseCode(), now);
+            results.add(toItemResult(i, key.toString(), result, key.studentId(), key.courseCode()));
+        }
+        return results;
+    }
 
-        // Check if already registered
-        if (courseRegistrationRepository.existsByStudentIdAndCourseId(student.getId(), course.getId())) {
-            throw new DuplicateResourceException("CourseRegistration", "studentId and courseCode", 
-                    studentId + " and " + courseCode);
+    /**
+     * Registers one student for many courses: all codes are resolved and inserted by one
+     * statement in this transaction, and each course gets its own result
+     */
+    public BulkOperationResponseDTO<CourseRegistrationResponseDTO> registerForCourses(String studentId, List<String> courseCodes) {
+        BulkItemResultDTO<CourseRegistrationResponseDTO>[] results = newResults(courseCodes.size());
+        List<Integer> unique = rejectRepeats(courseCodes, results, "course code");
+
+        List<RegistrationResult> rows = courseRegistrationJdbcRepository.registerForCourses(
+                studentId, unique.stream().map(courseCodes::get).toList(), LocalDateTime.now());
+
+        // Check if student exists by studentId string
+        if (rows.get(0).studentPk() == null) {
+            throw new ResourceNotFoundException("Student", "studentId", studentId);
         }
 
-        // Create course registration
-        CourseRegistration registration = CourseRegistration.builder()
-                .student(student)
-                .course(course)
-                .registrationDate(LocalDateTime.now())
-                .build();
+        for (int n = 0; n < unique.size(); n++) {
+            int index = unique.get(n);
+            results[index] = toItemResult(index, courseCodes.get(index), rows.get(n), studentId, courseCodes.get(index));
+        }
+        return BulkOperationResponseDTO.of(Arrays.asList(results));
+    }
 
-        // Save registration
-        CourseRegistration savedRegistration = courseRegistrationRepository.save(registration);
+    /**
+     * Enrols many students into one course: all student IDs are resolved and inserted by one
+     * statement in this transaction. Free seats go to students in request order.
+     */
+    public BulkOperationResponseDTO<CourseRegistrationResponseDTO> enrolStudents(String courseCode, List<String> studentIds) {
+        BulkItemResultDTO<CourseRegistrationResponseDTO>[] results = newResults(studentIds.size());
+        List<Integer> unique = rejectRepeats(studentIds, results, "student ID");
+
+        List<RegistrationResult> rows = courseRegistrationJdbcRepository.enrolCohort(
+                courseCode, unique.stream().map(studentIds::get).toList(), LocalDateTime.now());
 
-        // Convert to DTO and return
-        return convertToDTO(savedRegistration);
+        // Check if course exists by courseCode string
+        if (rows.get(0).coursePk() == null) {
+            throw new ResourceNotFoundException("Course", "courseCode", courseCode);
+        }
+
+        for (int n = 0; n < unique.size(); n++) {
+            int index = unique.get(n);
+            results[index] = toItemResult(index, studentIds.get(index), rows.get(n), studentIds.get(index), courseCode);
+        }
+        return BulkOperationResponseDTO.of(Arrays.asList(results));
     }
 
     public CourseRegistrationResponseDTO registerForCourse(Long studentId, Long courseId) {
+        // Look up student and course, take a seat and insert in one statement
+        RegistrationResult result = courseRegistrationJdbcRepository.register(studentId, courseId, LocalDateTime.now());
+
         // Check if student exists
-        Student student = studentRepository.findById(studentId)
-                .orElseThrow(() -> new ResourceNotFoundException("Student", "id", studentId));
+        if (!result.studentFound()) {
+            throw new ResourceNotFoundException("Student", "id", studentId);
+        }
 
         // Check if course exists
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new ResourceNotFoundException("Course", "id", courseId));
-
-        // Check if already registered
-        if (courseRegistrationRepository.existsByStudentIdAndCourseId(studentId, courseId)) {
-            throw new DuplicateResourceException("CourseRegistration", "studentId and courseId", 
-                    studentId + " and " + courseId);
+        if (!result.courseFound()) {
+            throw new ResourceNotFoundException("Course", "id", courseId);
         }
 
-        // Create course registration
-        CourseRegistration registration = CourseRegistration.builder()
-                .student(student)
-                .course(course)
-                .registrationDate(LocalDateTime.now())
-                .build();
-
-        // Save registration
-        CourseRegistration savedRegistration = courseRegistrationRepository.save(registration);
-
-        // Convert to DTO and return
-        return convertToDTO(savedRegistration);
+        return toRegistrationOutcome(result, "studentId and courseId", studentId + " and " + courseId);
     }
 
+    /**
+     * Removes the registration (or waitlist entry). A freed seat is handed to the head of
+     * the waitlist in the same statement.
+     */
     public void unregisterFromCourse(String studentId, String courseCode) {
+        UnregistrationResult result = courseRegistrationJdbcRepository.unregister(studentId, courseCode, LocalDateTime.now());
+
         // Check if student exists by studentId string
-        Student student = studentRepository.findByStudentId(studentId)
-                .orElseThrow(() -> new ResourceNotFoundException("Student", "studentId", studentId));
+        if (!result.studentFound()) {
+            throw new ResourceNotFoundException("Student", "studentId", studentId);
+        }
 
         // Check if course exists by courseCode string
-        Course course = courseRepository.findByCourseCode(courseCode)
-                .orElseThrow(() -> new ResourceNotFoundException("Course", "courseCode", courseCode));
+        if (!result.courseFound()) {
+            throw new ResourceNotFoundException("Course", "courseCode", courseCode);
+        }
 
-        // Check if registration exists
-        if (!courseRegistrationRepository.existsByStudentIdAndCourseId(student.getId(), course.getId())) {
+        // Check if registration existed
+        if (!result.unregistered() && !result.leftWaitlist()) {
             throw new ResourceNotFoundException("CourseRegistration", "studentId and courseCode", 
                     studentId + " and " + courseCode);
         }
-
-        // Delete registration
-        courseRegistrationRepository.deleteByStudentIdAndCourseId(student.getId(), course.getId());
+        publishUnregistration(result);
     }
 
     public void unregisterFromCourse(Long studentId, Long courseId) {
+        UnregistrationResult result = courseRegistrationJdbcRepository.unregister(studentId, courseId, LocalDateTime.now());
+
         // Check if student exists
-        if (!studentRepository.existsById(studentId)) {
+        if (!result.studentFound()) {
             throw new ResourceNotFoundException("Student", "id", studentId);
         }
 
         // Check if course exists
-        if (!courseRepository.existsById(courseId)) {
+        if (!result.courseFound()) {
             throw new ResourceNotFoundException("Course", "id", courseId);
         }
 
-        // Check if registration exists
-        if (!courseRegistrationRepository.existsByStudentIdAndCourseId(studentId, courseId)) {
+        // Check if registration existed
+        if (!result.unregistered() && !result.leftWaitlist()) {
             throw new ResourceNotFoundException("CourseRegistration", "studentId and courseId", 
                     studentId + " and " + courseId);
         }
-
-        // Delete registration
-        courseRegistrationRepository.deleteByStudentIdAndCourseId(studentId, courseId);
+        publishUnregistration(result);
     }
 
-    @Transactional(readOnly = true)
-    public List<CourseRegistrationResponseDTO> getStudentCourses(String studentId) {
+    private CourseRegistrationResponseDTO resolveByCodes(RegistrationResult result, String studentId, String courseCode) {
         // Check if student exists by studentId string
-        Student student = studentRepository.findByStudentId(studentId)
-                .orElseThrow(() -> new ResourceNotFoundException("Student", "studentId", studentId));
+        if (!result.studentFound()) {
+            throw new ResourceNotFoundException("Student", "studentId", studentId);
+        }
 
-        // Get all registrations for the student
-        List<CourseRegistration> registrations = courseRegistrationRepository.findByStudentId(student.getId());
+        // Check if course exists by courseCode string
+        if (!result.courseFound()) {
+            throw new ResourceNotFoundException("Course", "courseCode", courseCode);
+        }
+
+        return toRegistrationOutcome(result, "studentId and courseCode", studentId + " and " + courseCode);
+    }
+
+    private CourseRegistrationResponseDTO toRegistrationOutcome(RegistrationResult result, String fieldName, String fieldValue) {
+        if (result.created()) {
+            eventPublisher.publishEvent(StudentEnrolmentChangedEvent.of(result.studentCode()));
+            return convertToDTO(result);
+        }
+        if (result.waitlisted()) {
+            return convertToWaitlistDTO(result);
+        }
 
-        // Convert to DTOs and return
-        return registrations.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        // Unlimited course, or a seat was taken but a concurrent duplicate won the insert
+        if (result.alreadyRegistered() || result.capacity() == null || result.seatTaken()) {
+            throw new DuplicateResourceException("CourseRegistration", fieldName, fieldValue);
+        }
+        if (result.alreadyWaitlisted()) {
+            throw new DuplicateResourceException("CourseWaitlistEntry", fieldName, fieldValue);
+        }
+        throw new CourseFullException(result.courseCode(), result.capacity());
+    }
+
+    /**
+     * Returns the student's registered courses from the per-student cache; a miss costs
+     * one join query projected straight into DTOs. Only the loader opens a transaction, so
+     * a hit takes no connection.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<CourseRegistrationResponseDTO> getStudentCourses(String studentId) {
+        return studentEnrolmentCache.get(studentId, key -> readOnlyTransaction().execute(status -> {
+            List<CourseRegistrationResponseDTO> courses = courseRegistrationRepository.findCoursesByStudentCode(key);
+
+            // Check if student exists by studentId string (only ambiguous when nothing was found)
+            if (courses.isEmpty() && studentRepository.findBySimpleNaturalId(key).isEmpty()) {
+                throw new ResourceNotFoundException("Student", "studentId", key);
+            }
+            return courses;
+        }));
     }
 
     @Transactional(readOnly = true)
     public List<CourseRegistrationResponseDTO> getStudentCourses(Long studentId) {
+        List<CourseRegistrationResponseDTO> courses = courseRegistrationRepository.findCoursesByStudentId(studentId);
+
         // Check if student exists
-        if (!studentRepository.existsById(studentId)) {
+        if (courses.isEmpty() && !studentRepository.existsById(studentId)) {
             throw new ResourceNotFoundException("Student", "id", studentId);
         }
+        return courses;
+    }
 
-        // Get all registrations for the student
-        List<CourseRegistration> registrations = courseRegistrationRepository.findByStudentId(studentId);
+    private TransactionTemplate readOnlyTransaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
+
+    /**
+     * Turns one row of a batch statement into an item result. Nothing is rolled back for a
+     * failed item, so a seat it took in a race is released explicitly.
+     */
+    private BulkItemResultDTO<CourseRegistrationResponseDTO> toItemResult(int index, String key, RegistrationResult result,
+                                                                        String studentId, String courseCode) {
+        try {
+            return BulkItemResultDTO.succeeded(index, key, resolveByCodes(result, studentId, courseCode));
+        } catch (ResourceNotFoundException | DuplicateResourceException | CourseFullException e) {
+            if (result.seatTaken() && !result.created()) {
+                courseRegistrationJdbcRepository.releaseSeat(result.coursePk());
+            }
+            return BulkItemResultDTO.failed(index, key, e.getMessage());
+        }
+    }
 
-        // Convert to DTOs and return
-        return registrations.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    /**
+     * Marks repeated keys as failed and returns the indexes of the first occurrences
+     */
+    private static List<Integer> rejectRepeats(List<String> keys, BulkItemResultDTO<CourseRegistrationResponseDTO>[] results,
+                                               String keyName) {
+        List<Integer> unique = new ArrayList<>(keys.size());
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < keys.size(); i++) {
+            String key = keys.get(i);
+            if (seen.add(key)) {
+                unique.add(i);
+            } else {
+                results[i] = BulkItemResultDTO.failed(i, key, "Duplicate " + keyName + " in request: '" + key + "'");
+            }
+        }
+        return unique;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BulkItemResultDTO<CourseRegistrationResponseDTO>[] newResults(int size) {
+        return new BulkItemResultDTO[size];
+    }
+
+    /**
+     * Drops cached courses of the student and of anyone promoted into the freed seat
+     */
+    private void publishUnregistration(UnregistrationResult result) {
+        if (result.promotedStudentCode() != null) {
+            log.info("Promoted student {} from the waitlist of course {}", result.promotedStudentCode(), result.coursePk());
+            eventPublisher.publishEvent(StudentEnrolmentChangedEvent.of(result.studentCode(), result.promotedStudentCode()));
+        } else {
+            eventPublisher.publishEvent(StudentEnrolmentChangedEvent.of(result.studentCode()));
+        }
+    }
+
+    /**
+     * A student ID (STU...) and course code pair to register
+     */
+    public record RegistrationKey(String studentId, String courseCode) {
+
+        @Override
+        public String toString() {
+            return studentId + "/" + courseCode;
+        }
+    }
+
+    /**
+     * Converts a registration insert result to CourseRegistrationResponseDTO
+     */
+    static CourseRegistrationResponseDTO convertToDTO(RegistrationResult result) {
+        return CourseRegistrationResponseDTO.builder()
+                .id(result.registrationId())
+                .courseCode(result.courseCode())
+                .courseName(result.courseName())
+                .description(result.description())
+                .credits(result.credits())
+                .registrationDate(result.registrationDate())
+                .status(RegistrationStatus.REGISTERED)
+                .build();
     }
 
     /**
-     * Converts CourseRegistration entity to CourseRegistrationResponseDTO
+     * Converts a waitlist insert result to CourseRegistrationResponseDTO
      */
-    private CourseRegistrationResponseDTO convertToDTO(CourseRegistration registration) {
-        Course course = registration.getCourse();
+    private CourseRegistrationResponseDTO convertToWaitlistDTO(RegistrationResult result) {
         return CourseRegistrationResponseDTO.builder()
-                .id(registration.getId())
-                .courseCode(course.getCourseCode())
-                .courseName(course.getCourseName())
-                .description(course.getDescription())
-                .credits(course.getCredits())
-                .registrationDate(registration.getRegistrationDate())
+                .courseCode(result.courseCode())
+                .courseName(result.courseName())
+                .description(result.description())
+                .credits(result.credits())
+                .status(RegistrationStatus.WAITLISTED)
+                .waitlistPosition(result.waitlistPosition())
                 .build();
     }
 }
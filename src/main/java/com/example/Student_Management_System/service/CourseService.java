@@ -2,25 +2,41 @@ package com.example.Student_Management_System.service;
 
 import com.example.Student_Management_System.dto.CourseRequestDTO;
 import com.example.Student_Management_System.dto.CourseResponseDTO;
+import com.example.Student_Management_System.dto.CursorPageResponseDTO;
+import com.example.Student_Management_System.dto.StudentResponseDTO;
 import com.example.Student_Management_System.entity.Course;
 import com.example.Student_Management_System.exception.DuplicateResourceException;
 import com.example.Student_Management_System.exception.ResourceNotFoundException;
+import com.example.Student_Management_System.repository.CourseRegistrationJdbcRepository;
 import com.example.Student_Management_System.repository.CourseRegistrationRepository;
 import com.example.Student_Management_System.repository.CourseRepository;
+import com.example.Student_Management_System.repository.SecondLevelCache;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "app.service", histogram = true)
 @RequiredArgsConstructor
 @Transactional
 public class CourseService {
 
     private final CourseRepository courseRepository;
     private final CourseRegistrationRepository courseRegistrationRepository;
+    private final CourseRegistrationJdbcRepository courseRegistrationJdbcRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CourseCatalogCache courseCatalogCache;
+    private final SecondLevelCache secondLevelCache;
 
     public CourseResponseDTO createCourse(CourseRequestDTO requestDTO) {
         // Check if course code already exists
@@ -34,29 +50,82 @@ public class CourseService {
                 .courseName(requestDTO.getCourseName())
                 .description(requestDTO.getDescription())
                 .credits(requestDTO.getCredits())
+                .capacity(requestDTO.getCapacity())
+                .seatsAvailable(requestDTO.getCapacity())
+                .waitlistEnabled(requestDTO.isWaitlistEnabled())
                 .build();
 
         // Save course
         Course savedCourse = courseRepository.save(course);
+        eventPublisher.publishEvent(new CourseCatalogChangedEvent(savedCourse.getId()));
 
         // Convert to DTO and return
         return convertToDTO(savedCourse);
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Served from the catalog snapshot without a transaction, so a hit takes no connection;
+     * the repository opens its own transaction for the fallback query
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public CourseResponseDTO getCourseById(Long id) {
+        CourseCatalogCache.Snapshot catalog = catalog();
+        if (catalog.complete()) {
+            CourseResponseDTO course = catalog.byId().get(id);
+            if (course == null) {
+                throw new ResourceNotFoundException("Course", "id", id);
+            }
+            return course;
+        }
         Course course = courseRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Course", "id", id));
         return convertToDTO(course);
     }
 
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<CourseResponseDTO> getAllCourses() {
+        CourseCatalogCache.Snapshot catalog = catalog();
+        if (catalog.complete()) {
+            return catalog.courses();
+        }
         return courseRepository.findAll().stream()
-                .map(this::convertToDTO)
+                .map(CourseService::convertToDTO)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Returns the page of courses with id greater than {@code after}, ordered by id.
+     * Served from the catalog snapshot; past {@code catalog-cache.max-courses} rows are
+     * projected straight into DTOs so no entities are loaded.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public CursorPageResponseDTO<CourseResponseDTO> getCourses(Long after, int limit) {
+        int pageSize = CursorPageResponseDTO.clampLimit(limit);
+        long cursor = after != null ? after : 0L;
+        CourseCatalogCache.Snapshot catalog = catalog();
+        List<CourseResponseDTO> rows = catalog.complete()
+                ? catalog.pageAfter(cursor, pageSize + 1)
+                : courseRepository.findPageAfter(cursor, Limit.of(pageSize + 1));
+        return CursorPageResponseDTO.of(rows, pageSize, CourseResponseDTO::getId);
+    }
+
+    /**
+     * Returns the page of students registered for the course with student id greater than
+     * {@code after}, ordered by student id and projected straight into DTOs
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponseDTO<StudentResponseDTO> getCourseStudents(String courseCode, Long after, int limit) {
+        int pageSize = CursorPageResponseDTO.clampLimit(limit);
+        List<StudentResponseDTO> rows = courseRegistrationRepository.findRosterPageAfter(
+                courseCode, after != null ? after : 0L, Limit.of(pageSize + 1));
+
+        // Check if course exists by courseCode string (only ambiguous when nothing was found)
+        if (rows.isEmpty() && !courseExists(courseCode)) {
+            throw new ResourceNotFoundException("Course", "courseCode", courseCode);
+        }
+        return CursorPageResponseDTO.of(rows, pageSize, StudentResponseDTO::getId);
+    }
+
     public CourseResponseDTO updateCourse(Long id, CourseRequestDTO requestDTO) {
         // Find existing course
         Course course = courseRepository.findById(id)
@@ -68,41 +137,100 @@ public class CourseService {
             throw new DuplicateResourceException("Course", "courseCode", requestDTO.getCourseCode());
         }
 
+        // Registered students' credit totals move with the course's credits, in this transaction
+        if (!course.getCredits().equals(requestDTO.getCredits())) {
+            courseRegistrationJdbcRepository.changeCredits(id, requestDTO.getCredits());
+        }
+
         // Update course fields
         course.setCourseCode(requestDTO.getCourseCode());
         course.setCourseName(requestDTO.getCourseName());
         course.setDescription(requestDTO.getDescription());
         course.setCredits(requestDTO.getCredits());
+        course.setWaitlistEnabled(requestDTO.isWaitlistEnabled());
+
+        // Capacity is changed with SQL so free seats move with it atomically
+        if (!Objects.equals(course.getCapacity(), requestDTO.getCapacity())) {
+            Integer seatsAvailable = courseRegistrationJdbcRepository.resize(id, requestDTO.getCapacity());
+            int promoted = courseRegistrationJdbcRepository.promoteWaitlisted(id, LocalDateTime.now());
+            course.setCapacity(requestDTO.getCapacity());
+            course.setSeatsAvailable(seatsAvailable != null ? seatsAvailable - promoted : null);
+            course.setEnrolledCount(course.getEnrolledCount() + promoted);
+        }
 
         // Save updated course
         Course updatedCourse = courseRepository.save(course);
 
+        // Cached enrolments carry course details and promotions, so drop them all
+        eventPublisher.publishEvent(StudentEnrolmentChangedEvent.all());
+        eventPublisher.publishEvent(new CourseCatalogChangedEvent(id));
+
+        // The cached copy carries counters as loaded, which the SQL above may have moved
+        secondLevelCache.evict(Course.class, id);
+
         // Convert to DTO and return
         return convertToDTO(updatedCourse);
     }
 
+    /**
+     * Marks the course deleted; its registrations, waitlist and the row itself are removed
+     * in the background by DeletionPurgeService
+     */
     public void deleteCourse(Long id) {
         // Check if course exists
         Course course = courseRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Course", "id", id));
 
-        // Delete all registrations for this course first
-        courseRegistrationRepository.deleteAll(courseRegistrationRepository.findByCourseId(id));
+        // Mark course deleted; from now on it can't be found or registered for
+        course.setDeletedAt(LocalDateTime.now());
+        courseRepository.save(course);
+        eventPublisher.publishEvent(StudentEnrolmentChangedEvent.all());
+        eventPublisher.publishEvent(new CourseCatalogChangedEvent(id));
 
-        // Delete course
-        courseRepository.deleteById(id);
+        // Cache hits don't apply the deleted_at restriction
+        secondLevelCache.evict(Course.class, id);
+    }
+
+    /**
+     * Reloads the catalog snapshot so seat and enrolment counts, which registrations change
+     * without invalidating it, stay at most one interval old
+     */
+    @Scheduled(fixedDelayString = "${catalog-cache.refresh-interval:10s}")
+    @Transactional(readOnly = true)
+    public void refreshCatalog() {
+        courseCatalogCache.refresh(this::loadCatalog);
+    }
+
+    private CourseCatalogCache.Snapshot catalog() {
+        return courseCatalogCache.get(this::loadCatalog);
+    }
+
+    private List<CourseResponseDTO> loadCatalog(int maxRows) {
+        return courseRepository.findPageAfter(0L, Limit.of(maxRows));
+    }
+
+    private boolean courseExists(String courseCode) {
+        CourseCatalogCache.Snapshot catalog = catalog();
+        if (catalog.complete()) {
+            return catalog.byCode().containsKey(courseCode);
+        }
+        return courseRepository.findBySimpleNaturalId(courseCode).isPresent();
     }
 
     /**
      * Converts Course entity to CourseResponseDTO
      */
-    private CourseResponseDTO convertToDTO(Course course) {
+    static CourseResponseDTO convertToDTO(Course course) {
         return CourseResponseDTO.builder()
                 .id(course.getId())
                 .courseCode(course.getCourseCode())
                 .courseName(course.getCourseName())
                 .description(course.getDescription())
                 .credits(course.getCredits())
+                .capacity(course.getCapacity())
+                .seatsAvailable(course.getSeatsAvailable())
+                .waitlistEnabled(course.isWaitlistEnabled())
+                .enrolledCount(course.getEnrolledCount())
                 .build();
     }
 }
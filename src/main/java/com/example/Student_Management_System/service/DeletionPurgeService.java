@@ -0,0 +1,148 @@
+package com.example.Student_Management_System.service;
+
+import com.example.Student_Management_System.dto.DeletionPurgeStatsDTO;
+import com.example.Student_Management_System.repository.CourseRegistrationJdbcRepository;
+import com.example.Student_Management_System.repository.DeletionPurgeJdbcRepository;
+import com.example.Student_Management_System.repository.DeletionPurgeJdbcRepository.PendingPurge;
+import com.example.Student_Management_System.repository.DeletionPurgeJdbcRepository.StudentPurge;
+import com.example.Student_Management_System.repository.DeletionPurgeJdbcRepository.StudentRegistrationPurge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+/**
+ * Removes what deleted courses and students leave behind. Deleting only marks the row
+ * ({@code deleted_at}), so the API answers at once whatever the fan-out; this job then
+ * deletes registrations, waitlist entries, the rows themselves and linked users in chunks
+ * of {@code chunk-size}, one short transaction per chunk.
+ */
+@Service
+@Slf4j
+public class DeletionPurgeService {
+
+    private final DeletionPurgeJdbcRepository deletionPurgeJdbcRepository;
+    private final CourseRegistrationJdbcRepository courseRegistrationJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final int chunkSize;
+
+    private final LongAdder purgedCourses = new LongAdder();
+    private final LongAdder purgedStudents = new LongAdder();
+    private final LongAdder purgedUsers = new LongAdder();
+    private final LongAdder purgedRegistrations = new LongAdder();
+    private final LongAdder purgedWaitlistEntries = new LongAdder();
+    private final LongAdder chunks = new LongAdder();
+    private final LongAdder failedRuns = new LongAdder();
+    private volatile LocalDateTime lastRunAt;
+    private volatile long lastRunNanos;
+
+    public DeletionPurgeService(DeletionPurgeJdbcRepository deletionPurgeJdbcRepository,
+                                CourseRegistrationJdbcRepository courseRegistrationJdbcRepository,
+                                TransactionTemplate transactionTemplate,
+                                ApplicationEventPublisher eventPublisher,
+                                @Value("${deletion-purge.enabled:true}") boolean enabled,
+                                @Value("${deletion-purge.chunk-size:1000}") int chunkSize) {
+        this.deletionPurgeJdbcRepository = deletionPurgeJdbcRepository;
+        this.courseRegistrationJdbcRepository = courseRegistrationJdbcRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(fixedDelayString = "${deletion-purge.interval:5s}")
+    public void purge() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            // Children first; a parent row is only deleted once nothing references it
+            drain(() -> deletionPurgeJdbcRepository.purgeCourseRegistrations(chunkSize), purgedRegistrations);
+            drain(() -> deletionPurgeJdbcRepository.purgeCourseWaitlist(chunkSize), purgedWaitlistEntries);
+            drain(() -> deletionPurgeJdbcRepository.purgeCourses(chunkSize), purgedCourses);
+
+            drain(this::purgeStudentRegistrations, purgedRegistrations);
+            drain(() -> deletionPurgeJdbcRepository.purgeStudentWaitlist(chunkSize), purgedWaitlistEntries);
+            drain(this::purgeStudents, purgedStudents);
+            drain(() -> deletionPurgeJdbcRepository.purgeUsers(chunkSize), purgedUsers);
+        } catch (RuntimeException e) {
+            // Whatever is left is picked up by the next run
+            failedRuns.increment();
+            log.warn("Deletion purge stopped early, retrying on the next run", e);
+        } finally {
+            lastRunAt = LocalDateTime.now();
+            lastRunNanos = System.nanoTime() - start;
+        }
+    }
+
+    public DeletionPurgeStatsDTO stats() {
+        PendingPurge pending = deletionPurgeJdbcRepository.pending();
+        return DeletionPurgeStatsDTO.builder()
+                .pendingCourses(pending.courses())
+                .pendingStudents(pending.students())
+                .pendingUsers(pending.users())
+                .pendingRegistrations(pending.registrations())
+                .pendingWaitlistEntries(pending.waitlistEntries())
+                .purgedCourses(purgedCourses.sum())
+                .purgedStudents(purgedStudents.sum())
+                .purgedUsers(purgedUsers.sum())
+                .purgedRegistrations(purgedRegistrations.sum())
+                .purgedWaitlistEntries(purgedWaitlistEntries.sum())
+                .chunkSize(chunkSize)
+                .chunks(chunks.sum())
+                .failedRuns(failedRuns.sum())
+                .lastRunAt(lastRunAt)
+                .lastRunMillis(lastRunNanos / 1_000_000.0)
+                .build();
+    }
+
+    /**
+     * Runs one kind of chunk until a chunk comes back short
+     */
+    private void drain(IntSupplier chunk, LongAdder purged) {
+        int deleted;
+        do {
+            deleted = chunk.getAsInt();
+            if (deleted > 0) {
+                purged.add(deleted);
+                chunks.increment();
+            }
+        } while (deleted == chunkSize);
+    }
+
+    /**
+     * Frees the seats of one chunk of a deleted student's registrations and hands them to
+     * the waitlists in the same transaction, so nobody can jump the queue in between
+     */
+    private int purgeStudentRegistrations() {
+        Integer purged = transactionTemplate.execute(status -> {
+            StudentRegistrationPurge purge = deletionPurgeJdbcRepository.purgeStudentRegistrations(chunkSize);
+            LocalDateTime now = LocalDateTime.now();
+            int promoted = 0;
+            for (Long courseId : purge.freedCourseIds()) {
+                promoted += courseRegistrationJdbcRepository.promoteWaitlisted(courseId, now);
+            }
+            // Promoted students aren't known by code here, so drop every cached enrolment
+            if (promoted > 0) {
+                eventPublisher.publishEvent(StudentEnrolmentChangedEvent.all());
+            }
+            return purge.purged();
+        });
+        return purged != null ? purged : 0;
+    }
+
+    private int purgeStudents() {
+        StudentPurge purge = deletionPurgeJdbcRepository.purgeStudents(chunkSize);
+        purgedUsers.add(purge.users());
+        return purge.students();
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.Student_Management_System.service;
+
+import com.example.Student_Management_System.dto.EnrolmentStatsDTO;
+import com.example.Student_Management_System.repository.CourseRegistrationJdbcRepository;
+import com.example.Student_Management_System.repository.EnrolmentCounterJdbcRepository;
+import com.example.Student_Management_System.repository.EnrolmentCounterJdbcRepository.ChunkResult;
+import com.example.Student_Management_System.repository.EnrolmentCounterJdbcRepository.Totals;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+/**
+ * Enrolment counts per course and credit totals per student are maintained by the
+ * registration SQL, so reading them costs one row. This service reports them and
+ * periodically recounts them from course_registrations, repairing any drift (including
+ * rows that existed before the counters did). Seats freed by a repair go to the waitlist.
+ */
+@Service
+@Slf4j
+public class EnrolmentCounterService {
+
+    private final EnrolmentCounterJdbcRepository enrolmentCounterJdbcRepository;
+    private final CourseRegistrationJdbcRepository courseRegistrationJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+
+    private final LongAdder reconcileRuns = new LongAdder();
+    private final LongAdder totalRepaired = new LongAdder();
+    private volatile LocalDateTime lastReconciledAt;
+    private volatile long lastReconcileNanos;
+    private volatile long lastCoursesRepaired;
+    private volatile long lastStudentsRepaired;
+
+    public EnrolmentCounterService(EnrolmentCounterJdbcRepository enrolmentCounterJdbcRepository,
+                                   CourseRegistrationJdbcRepository courseRegistrationJdbcRepository,
+                                   TransactionTemplate transactionTemplate,
+                                   ApplicationEventPublisher eventPublisher,
+                                   @Value("${enrolment-counters.chunk-size:500}") int chunkSize) {
+        this.enrolmentCounterJdbcRepository = enrolmentCounterJdbcRepository;
+        this.courseRegistrationJdbcRepository = courseRegistrationJdbcRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Recounts every course and student in chunks, one transaction per chunk
+     */
+    @Scheduled(initialDelayString = "${enrolment-counters.reconcile-initial-delay:30s}",
+               fixedDelayString = "${enrolment-counters.reconcile-interval:1h}")
+    public synchronized EnrolmentStatsDTO reconcile() {
+        long start = System.nanoTime();
+        long coursesRepaired = walk(this::reconcileCourses);
+        long studentsRepaired = walk(enrolmentCounterJdbcRepository::reconcileStudents);
+
+        if (coursesRepaired > 0 || studentsRepaired > 0) {
+            log.warn("Repaired enrolment counters of {} courses and credit totals of {} students",
+                    coursesRepaired, studentsRepaired);
+        }
+        lastCoursesRepaired = coursesRepaired;
+        lastStudentsRepaired = studentsRepaired;
+        totalRepaired.add(coursesRepaired + studentsRepaired);
+        reconcileRuns.increment();
+        lastReconciledAt = LocalDateTime.now();
+        lastReconcileNanos = System.nanoTime() - start;
+        return stats();
+    }
+
+    public EnrolmentStatsDTO stats() {
+        Totals totals = enrolmentCounterJdbcRepository.totals();
+        return EnrolmentStatsDTO.builder()
+                .courses(totals.courses())
+                .fullCourses(totals.fullCourses())
+                .totalEnrolments(totals.enrolments())
+                .largestCourseEnrolment(totals.largestEnrolment())
+                .students(totals.students())
+                .averageCredits(totals.averageCredits())
+                .maxCredits(totals.maxCredits())
+                .lastReconciledAt(lastReconciledAt)
+                .lastReconcileMillis(lastReconcileNanos / 1_000_000.0)
+                .lastCoursesRepaired(lastCoursesRepaired)
+                .lastStudentsRepaired(lastStudentsRepaired)
+                .reconcileRuns(reconcileRuns.sum())
+                .totalRepaired(totalRepaired.sum())
+                .build();
+    }
+
+    /**
+     * Repairs one chunk of courses and fills the seats it freed from the waitlists in the
+     * same transaction, while the chunk is still locked
+     */
+    private ChunkResult reconcileCourses(long afterId, int limit) {
+        return transactionTemplate.execute(status -> {
+            ChunkResult result = enrolmentCounterJdbcRepository.reconcileCourses(afterId, limit);
+            LocalDateTime now = LocalDateTime.now();
+            int promoted = 0;
+            for (Long courseId : result.freedCourseIds()) {
+                promoted += courseRegistrationJdbcRepository.promoteWaitlisted(courseId, now);
+            }
+            if (promoted > 0) {
+                eventPublisher.publishEvent(StudentEnrolmentChangedEvent.all());
+            }
+            return result;
+        });
+    }
+
+    private long walk(BiFunction<Long, Integer, ChunkResult> chunk) {
+        long repaired = 0;
+        long afterId = 0;
+        ChunkResult result;
+        do {
+            result = chunk.apply(afterId, chunkSize);
+            repaired += result.repaired();
+            afterId = result.lastId();
+        } while (result.checked() == chunkSize);
+        return repaired;
+    }
+}
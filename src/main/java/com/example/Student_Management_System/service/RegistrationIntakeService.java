@@ -0,0 +1,327 @@
+package com.example.Student_Management_System.service;
+
+import com.example.Student_Management_System.dto.BulkItemResultDTO;
+import com.example.Student_Management_System.dto.CourseRegistrationResponseDTO;
+import com.example.Student_Management_System.dto.RegistrationIntakeStatsDTO;
+import com.example.Student_Management_System.dto.RegistrationTicketDTO;
+import com.example.Student_Management_System.enums.RegistrationStatus;
+import com.example.Student_Management_System.enums.RegistrationTicketStatus;
+import com.example.Student_Management_System.exception.ResourceNotFoundException;
+import com.example.Student_Management_System.exception.ServiceUnavailableException;
+import com.example.Student_Management_System.service.CourseRegistrationService.RegistrationKey;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Asynchronous registration intake for peak windows. Requests are accepted into a bounded
+ * queue and answered with a ticket straight away; a single writer thread drains the queue
+ * and registers each batch in one transaction, so a whole batch shares one connection and
+ * one commit instead of every request paying for its own.
+ *
+ * When the queue is full new requests get a 503 with Retry-After. When intake is disabled
+ * the ticket is completed synchronously, so clients can use the same API either way.
+ *
+ * Streamed tickets are pushed to their clients from a separate notifier pool; the writer
+ * only completes futures, so a slow client can't hold up the batches behind it.
+ */
+@Service
+@Slf4j
+public class RegistrationIntakeService {
+
+    private final CourseRegistrationService courseRegistrationService;
+    private final boolean enabled;
+    private final int queueCapacity;
+    private final int batchSize;
+    private final long maxTickets;
+    private final long streamTimeoutMillis;
+    private final BlockingQueue<Ticket> queue;
+    private final Cache<String, Ticket> tickets;
+    private final Thread writer;
+    private final ThreadPoolExecutor notifier;
+    private volatile boolean running = true;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder batchNanos = new LongAdder();
+    private final AtomicInteger notifierThreads = new AtomicInteger();
+
+    public RegistrationIntakeService(CourseRegistrationService courseRegistrationService,
+                                     @Value("${registration.intake.enabled:false}") boolean enabled,
+                                     @Value("${registration.intake.queue-capacity:10000}") int queueCapacity,
+                                     @Value("${registration.intake.batch-size:200}") int batchSize,
+                                     @Value("${registration.intake.ticket-ttl:10m}") Duration ticketTtl,
+                                     @Value("${registration.intake.stream-timeout:60s}") Duration streamTimeout,
+                                     @Value("${registration.intake.notify-threads:2}") int notifyThreads,
+                                     @Value("${registration.intake.max-tickets:100000}") long maxTickets) {
+        this.courseRegistrationService = courseRegistrationService;
+        this.enabled = enabled;
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+        this.streamTimeoutMillis = streamTimeout.toMillis();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxTickets = maxTickets;
+        // Also bounds tickets completed synchronously, which never pass through the queue
+        this.tickets = Caffeine.newBuilder()
+                .maximumSize(maxTickets)
+                .expireAfterWrite(ticketTtl)
+                .recordStats()
+                .build();
+        this.writer = new Thread(this::drainQueue, "registration-intake");
+        this.writer.setDaemon(true);
+        // One pending notification per streamed ticket at most, so the queue is bounded like the intake
+        this.notifier = new ThreadPoolExecutor(notifyThreads, notifyThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "registration-intake-notify-" + notifierThreads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PostConstruct
+    public void start() {
+        if (enabled) {
+            writer.start();
+            log.info("Registration intake started with a queue of {} and batches of up to {}", queueCapacity, batchSize);
+        }
+    }
+
+    /**
+     * Accepts a registration and returns its ticket
+     * @throws ServiceUnavailableException if the intake queue is full
+     */
+    public RegistrationTicketDTO submit(String studentId, String courseCode) {
+        Ticket ticket = new Ticket(UUID.randomUUID().toString(), studentId, courseCode, LocalDateTime.now());
+        tickets.put(ticket.id, ticket);
+
+        if (!enabled) {
+            ticket.complete(registerIndividually(List.of(ticket.key())).get(0));
+            return ticket.toDTO();
+        }
+
+        // Never block the servlet thread: a full queue is turned away
+        if (!queue.offer(ticket)) {
+            tickets.invalidate(ticket.id);
+            rejected.increment();
+            throw new ServiceUnavailableException("Registration intake is full, please retry shortly");
+        }
+        accepted.increment();
+        return ticket.toDTO();
+    }
+
+    /**
+     * Returns the current state of a ticket belonging to the student
+     */
+    public RegistrationTicketDTO getTicket(String studentId, String ticketId) {
+        return findTicket(studentId, ticketId).toDTO();
+    }
+
+    /**
+     * Streams the ticket as server-sent events: its current state now, and its final
+     * state as soon as the writer has processed it
+     */
+    public SseEmitter streamTicket(String studentId, String ticketId) {
+        Ticket ticket = findTicket(studentId, ticketId);
+        SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+        send(emitter, ticket);
+        ticket.completion.thenRunAsync(() -> {
+            send(emitter, ticket);
+            emitter.complete();
+        }, notifier).exceptionally(e -> {
+            // Notifier backlog is full; the client falls back to polling the ticket
+            emitter.completeWithError(e);
+            return null;
+        });
+        return emitter;
+    }
+
+    public RegistrationIntakeStatsDTO stats() {
+        long batchCount = batches.sum();
+        return RegistrationIntakeStatsDTO.builder()
+                .queued(queue.size())
+                .queueCapacity(queueCapacity)
+                .accepted(accepted.sum())
+                .rejected(rejected.sum())
+                .batches(batchCount)
+                .processed(processed.sum())
+                .averageBatchSize(batchCount == 0 ? 0.0 : processed.sum() / (double) batchCount)
+                .averageBatchMillis(batchCount == 0 ? 0.0 : batchNanos.sum() / (double) batchCount / 1_000_000.0)
+                .tickets(tickets.estimatedSize())
+                .maxTickets(maxTickets)
+                .ticketEvictions(tickets.stats().evictionCount())
+                .build();
+    }
+
+    /**
+     * Lets the writer finish what is already queued before the application context closes
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (writer.isAlive()) {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        notifier.shutdown();
+    }
+
+    private void drainQueue() {
+        List<Ticket> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                // Wake up periodically so a shutdown is noticed even when idle
+                Ticket first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                processBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Registration intake batch failed", e);
+                batch.forEach(ticket -> ticket.fail("Registration could not be processed"));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void processBatch(List<Ticket> batch) {
+        long start = System.nanoTime();
+        List<RegistrationKey> keys = batch.stream().map(Ticket::key).toList();
+
+        List<BulkItemResultDTO<CourseRegistrationResponseDTO>> results;
+        try {
+            results = courseRegistrationService.registerAll(keys);
+        } catch (RuntimeException e) {
+            // An unexpected error aborts the shared transaction; fall back to one transaction per item
+            log.warn("Registration batch of {} failed, retrying individually", batch.size(), e);
+            results = registerIndividually(keys);
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).complete(results.get(i));
+        }
+        batches.increment();
+        processed.add(batch.size());
+        batchNanos.add(System.nanoTime() - start);
+    }
+
+    private List<BulkItemResultDTO<CourseRegistrationResponseDTO>> registerIndividually(List<RegistrationKey> keys) {
+        List<BulkItemResultDTO<CourseRegistrationResponseDTO>> results = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            RegistrationKey key = keys.get(i);
+            try {
+                results.add(BulkItemResultDTO.succeeded(i, key.toString(),
+                        courseRegistrationService.registerForCourse(key.studentId(), key.courseCode())));
+            } catch (RuntimeException e) {
+                results.add(BulkItemResultDTO.failed(i, key.toString(), e.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    private Ticket findTicket(String studentId, String ticketId) {
+        Ticket ticket = tickets.getIfPresent(ticketId);
+        // Tickets of other students are reported as missing rather than forbidden
+        if (ticket == null || !ticket.studentId.equals(studentId)) {
+            throw new ResourceNotFoundException("RegistrationTicket", "ticketId", ticketId);
+        }
+        return ticket;
+    }
+
+    private static void send(SseEmitter emitter, Ticket ticket) {
+        try {
+            emitter.send(SseEmitter.event().name("ticket").id(ticket.id).data(ticket.toDTO()));
+        } catch (IOException | IllegalStateException e) {
+            // Client went away or the emitter already timed out; the ticket can still be polled
+            emitter.completeWithError(e);
+        }
+    }
+
+    /**
+     * A queued registration and, once processed, its outcome
+     */
+    private static final class Ticket {
+        private final String id;
+        private final String studentId;
+        private final String courseCode;
+        private final LocalDateTime submittedAt;
+        private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+        private volatile RegistrationTicketStatus status = RegistrationTicketStatus.PENDING;
+        private volatile CourseRegistrationResponseDTO registration;
+        private volatile String error;
+        private volatile LocalDateTime completedAt;
+
+        private Ticket(String id, String studentId, String courseCode, LocalDateTime submittedAt) {
+            this.id = id;
+            this.studentId = studentId;
+            this.courseCode = courseCode;
+            this.submittedAt = submittedAt;
+        }
+
+        private RegistrationKey key() {
+            return new RegistrationKey(studentId, courseCode);
+        }
+
+        private void complete(BulkItemResultDTO<CourseRegistrationResponseDTO> result) {
+            if (!result.isSuccess()) {
+                fail(result.getError());
+                return;
+            }
+            registration = result.getResult();
+            completedAt = LocalDateTime.now();
+            status = registration.getStatus() == RegistrationStatus.WAITLISTED
+                    ? RegistrationTicketStatus.WAITLISTED
+                    : RegistrationTicketStatus.REGISTERED;
+            completion.complete(null);
+        }
+
+        private void fail(String message) {
+            if (completion.isDone()) {
+                return;
+            }
+            error = message;
+            completedAt = LocalDateTime.now();
+            status = RegistrationTicketStatus.FAILED;
+            completion.complete(null);
+        }
+
+        private RegistrationTicketDTO toDTO() {
+            return RegistrationTicketDTO.builder()
+                    .ticketId(id)
+                    .studentId(studentId)
+                    .courseCode(courseCode)
+                    .status(status)
+                    .registration(registration)
+                    .error(error)
+                    .submittedAt(submittedAt)
+                    .completedAt(completedAt)
+                    .build();
+        }
+    }
+}
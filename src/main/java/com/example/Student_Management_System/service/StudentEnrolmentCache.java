@@ -0,0 +1,54 @@
+package com.example.Student_Management_System.service;
+
+import com.example.Student_Management_System.dto.CacheStatsDTO;
+import com.example.Student_Management_System.dto.CourseRegistrationResponseDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Registered courses per student, keyed by student code (STU...). Entries are dropped once
+ * a registration change commits; the TTL bounds staleness from a read that raced a commit.
+ */
+@Component
+public class StudentEnrolmentCache {
+
+    private final Cache<String, List<CourseRegistrationResponseDTO>> cache;
+
+    public StudentEnrolmentCache(@Value("${enrolment-cache.max-size:50000}") long maxSize,
+                                 @Value("${enrolment-cache.ttl:5m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached courses, loading them on a miss. Nothing is cached if the loader throws.
+     */
+    public List<CourseRegistrationResponseDTO> get(String studentId,
+                                                   Function<String, List<CourseRegistrationResponseDTO>> loader) {
+        return cache.get(studentId, key -> List.copyOf(loader.apply(key)));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEnrolmentChanged(StudentEnrolmentChangedEvent event) {
+        if (event.allStudents()) {
+            cache.invalidateAll();
+        } else {
+            cache.invalidateAll(event.studentIds());
+        }
+    }
+
+    public CacheStatsDTO stats() {
+        return CacheStatsDTO.of("student-enrolments", cache.estimatedSize(), cache.stats());
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.Student_Management_System.service;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Published when the registered courses of students change. {@code studentIds} are student
+ * codes (STU...); {@code allStudents} is set when a change touches an unknown set of
+ * students, such as editing or deleting a course.
+ */
+public record StudentEnrolmentChangedEvent(Collection<String> studentIds, boolean allStudents) {
+
+    public static StudentEnrolmentChangedEvent of(String... studentIds) {
+        return new StudentEnrolmentChangedEvent(List.of(studentIds), false);
+    }
+
+    public static StudentEnrolmentChangedEvent of(Collection<String> studentIds) {
+        return new StudentEnrolmentChangedEvent(List.copyOf(studentIds), false);
+    }
+
+    public static StudentEnrolmentChangedEvent all() {
+        return new StudentEnrolmentChangedEvent(List.of(), true);
+    }
+}
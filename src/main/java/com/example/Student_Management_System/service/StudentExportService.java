@@ -0,0 +1,87 @@
+package com.example.Student_Management_System.service;
+
+import com.example.Student_Management_System.dto.CourseRegistrationResponseDTO;
+import com.example.Student_Management_System.dto.StudentEnrolmentRowDTO;
+import com.example.Student_Management_System.dto.StudentExportDTO;
+import com.example.Student_Management_System.enums.RegistrationStatus;
+import com.example.Student_Management_System.repository.StudentRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class StudentExportService {
+
+    private static final byte NEWLINE = '\n';
+
+    private final StudentRepository studentRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Writes every student with their enrolments to the stream as newline-delimited JSON.
+     * Rows come off a forward-only cursor as DTO projections, so only the student being
+     * written is held in memory regardless of table size. Only registrations are exported,
+     * all as REGISTERED; waitlist entries are left out.
+     */
+    @Transactional(readOnly = true)
+    public void writeStudentsNdjson(OutputStream out) throws IOException {
+        try (Stream<StudentEnrolmentRowDTO> rows = studentRepository.streamAllWithEnrolments()) {
+            Iterator<StudentEnrolmentRowDTO> iterator = rows.iterator();
+            StudentExportDTO current = null;
+
+            while (iterator.hasNext()) {
+                StudentEnrolmentRowDTO row = iterator.next();
+
+                // Rows are ordered by student, so a new id means the previous student is complete
+                if (current == null || !current.getId().equals(row.getId())) {
+                    if (current != null) {
+                        writeLine(out, current);
+                    }
+                    current = StudentExportDTO.builder()
+                            .id(row.getId())
+                            .studentId(row.getStudentId())
+                            .firstName(row.getFirstName())
+                            .lastName(row.getLastName())
+                            .email(row.getEmail())
+                            .build();
+                }
+
+                if (row.getRegistrationId() != null) {
+                    current.getEnrolments().add(convertToEnrolmentDTO(row));
+                }
+            }
+
+            if (current != null) {
+                writeLine(out, current);
+            }
+            out.flush();
+        }
+    }
+
+    private void writeLine(OutputStream out, StudentExportDTO student) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(student));
+        out.write(NEWLINE);
+    }
+
+    /**
+     * Converts the enrolment columns of an export row to CourseRegistrationResponseDTO
+     */
+    private CourseRegistrationResponseDTO convertToEnrolmentDTO(StudentEnrolmentRowDTO row) {
+        return CourseRegistrationResponseDTO.builder()
+                .id(row.getRegistrationId())
+                .courseCode(row.getCourseCode())
+                .courseName(row.getCourseName())
+                .description(row.getDescription())
+                .credits(row.getCredits())
+                .registrationDate(row.getRegistrationDate())
+                .status(RegistrationStatus.REGISTERED)
+                .build();
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.Student_Management_System.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hands out student IDs (STU0000001, STU0000002, ...) from blocks leased off the
+ * {@code student_number_seq} database sequence.
+ *
+ * The sequence increments by the block size ({@code student-id.block-size}, fixed when the
+ * V2 migration creates it), so every {@code nextval} reserves a whole block for this instance. IDs inside the block come from an in-memory counter and never
+ * touch the database; two instances can never be handed the same block.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StudentIdAllocator {
+
+    public static final String PREFIX = "STU";
+    public static final int NUMBER_WIDTH = 7;
+    public static final long MAX_NUMBER = 9_999_999L;
+
+    private static final String SEQUENCE_NAME = "student_number_seq";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final AtomicReference<Block> currentBlock = new AtomicReference<>(new Block(0, 0));
+
+    // Block size actually used by the sequence; read back so instances can't disagree
+    private long leaseSize;
+
+    /**
+     * Returns the next student ID, leasing a new block from the database only when the
+     * current one is exhausted.
+     */
+    public String nextStudentId() {
+        while (true) {
+            Block block = currentBlock.get();
+            long number = block.next.getAndIncrement();
+            if (number < block.end) {
+                return format(number);
+            }
+            leaseBlock(block);
+        }
+    }
+
+    /**
+     * Formats a student number as a fixed-width ID so that lexical order matches numeric order.
+     */
+    public static String format(long number) {
+        if (number < 1 || number > MAX_NUMBER) {
+            throw new IllegalStateException("Student number out of range: " + number);
+        }
+        StringBuilder sb = new StringBuilder(PREFIX.length() + NUMBER_WIDTH).append(PREFIX);
+        String digits = Long.toString(number);
+        for (int i = digits.length(); i < NUMBER_WIDTH; i++) {
+            sb.append('0');
+        }
+        return sb.append(digits).toString();
+    }
+
+    /**
+     * Parses the numeric part of a student ID, or returns -1 if it is not in STU### format.
+     */
+    public static long parse(String studentId) {
+        if (studentId == null || !studentId.startsWith(PREFIX) || studentId.length() == PREFIX.length()) {
+            return -1;
+        }
+        long number = 0;
+        for (int i = PREFIX.length(); i < studentId.length(); i++) {
+            char c = studentId.charAt(i);
+            if (c < '0' || c > '9' || number > MAX_NUMBER) {
+                return -1;
+            }
+            number = number * 10 + (c - '0');
+        }
+        return number;
+    }
+
+    private synchronized void leaseBlock(Block exhausted) {
+        // Another thread may already have leased a fresh block while we waited for the lock
+        if (currentBlock.get() != exhausted) {
+            return;
+        }
+        if (leaseSize == 0) {
+            leaseSize = readLeaseSize();
+        }
+
+        Long start = jdbcTemplate.queryForObject("SELECT nextval('" + SEQUENCE_NAME + "')", Long.class);
+        currentBlock.set(new Block(start, start + leaseSize));
+        log.debug("Leased student number block [{}, {})", start, start + leaseSize);
+    }
+
+    private long readLeaseSize() {
+        return jdbcTemplate.queryForObject(
+                "SELECT increment_by FROM pg_sequences WHERE sequencename = ?", Long.class, SEQUENCE_NAME);
+    }
+
+    /**
+     * A leased range of student numbers; each block owns its counter so a number can
+     * only ever be handed out from the block it belongs to.
+     */
+    private static final class Block {
+        private final AtomicLong next;
+        private final long end;
+
+        private Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
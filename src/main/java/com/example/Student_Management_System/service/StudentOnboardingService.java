@@ -0,0 +1,111 @@
+package com.example.Student_Management_System.service;
+
+import com.example.Student_Management_System.dto.BulkItemResultDTO;
+import com.example.Student_Management_System.dto.BulkOperationResponseDTO;
+import com.example.Student_Management_System.dto.StudentCreateWithPasswordDTO;
+import com.example.Student_Management_System.dto.StudentResponseDTO;
+import com.example.Student_Management_System.entity.Student;
+import com.example.Student_Management_System.entity.User;
+import com.example.Student_Management_System.enums.Role;
+import com.example.Student_Management_System.repository.StudentBatchRepository;
+import com.example.Student_Management_System.repository.UserRepository;
+import com.example.Student_Management_System.security.PasswordHashingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Bulk student onboarding. Not transactional at the service level on purpose: password
+ * hashing runs before a connection is taken, and only the batched write is transactional.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StudentOnboardingService {
+
+    private final UserRepository userRepository;
+    private final StudentBatchRepository studentBatchRepository;
+    private final PasswordHashingService passwordHashingService;
+    private final StudentIdAllocator studentIdAllocator;
+
+    public BulkOperationResponseDTO<StudentResponseDTO> createStudents(List<StudentCreateWithPasswordDTO> requests) {
+        @SuppressWarnings("unchecked")
+        BulkItemResultDTO<StudentResponseDTO>[] results = new BulkItemResultDTO[requests.size()];
+
+        // Check every email against users and students in one query, ignoring case
+        Set<String> emails = new HashSet<>();
+        requests.forEach(request -> emails.add(request.getEmail().toLowerCase(Locale.ROOT)));
+        Set<String> registered = new HashSet<>(userRepository.findRegisteredEmails(emails));
+
+        // Reject existing emails and repeats within the batch; the rest are accepted
+        List<Integer> accepted = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            String email = requests.get(i).getEmail();
+            String key = email.toLowerCase(Locale.ROOT);
+            if (registered.contains(key)) {
+                results[i] = BulkItemResultDTO.failed(i, email, "Email already exists: '" + email + "'");
+            } else if (!seen.add(key)) {
+                results[i] = BulkItemResultDTO.failed(i, email, "Duplicate email in request: '" + email + "'");
+            } else {
+                accepted.add(i);
+            }
+        }
+
+        if (!accepted.isEmpty()) {
+            // Hash passwords across the bounded hashing pool
+            List<String> hashes = passwordHashingService.encodeAll(
+                    accepted.stream().map(i -> requests.get(i).getPassword()).toList());
+
+            List<User> users = new ArrayList<>(accepted.size());
+            List<Student> students = new ArrayList<>(accepted.size());
+            for (int n = 0; n < accepted.size(); n++) {
+                StudentCreateWithPasswordDTO request = requests.get(accepted.get(n));
+                users.add(User.builder()
+                        .email(request.getEmail())
+                        .password(hashes.get(n))
+                        .role(request.getRole() != null ? request.getRole() : Role.STUDENT)
+                        .build());
+                students.add(Student.builder()
+                        .firstName(request.getFirstName())
+                        .lastName(request.getLastName())
+                        .email(request.getEmail())
+                        .studentId(studentIdAllocator.nextStudentId())
+                        .build());
+            }
+
+            // Write users and students with JDBC batching
+            studentBatchRepository.insertUsersWithStudents(users, students);
+
+            for (int n = 0; n < accepted.size(); n++) {
+                int index = accepted.get(n);
+                Student student = students.get(n);
+                results[index] = BulkItemResultDTO.succeeded(index, student.getEmail(), convertToDTO(student));
+            }
+        }
+
+        log.info("Bulk onboarding created {} of {} students", accepted.size(), requests.size());
+        return BulkOperationResponseDTO.of(Arrays.asList(results));
+    }
+
+    /**
+     * Converts Student entity to StudentResponseDTO
+     */
+    private StudentResponseDTO convertToDTO(Student student) {
+        return StudentResponseDTO.builder()
+                .id(student.getId())
+                .firstName(student.getFirstName())
+                .lastName(student.getLastName())
+                .email(student.getEmail())
+                .studentId(student.getStudentId())
+                .totalCredits(student.getTotalCredits())
+                .build();
+    }
+}
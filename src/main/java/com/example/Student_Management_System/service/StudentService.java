@@ -1,5 +1,6 @@
 package com.example.Student_Management_System.service;
 
+import com.example.Student_Management_System.dto.CursorPageResponseDTO;
 import com.example.Student_Management_System.dto.StudentCreateWithPasswordDTO;
 import com.example.Student_Management_System.dto.StudentRequestDTO;
 import com.example.Student_Management_System.dto.StudentResponseDTO;
@@ -8,18 +9,23 @@ import com.example.Student_Management_System.entity.User;
 import com.example.Student_Management_System.enums.Role;
 import com.example.Student_Management_System.exception.DuplicateResourceException;
 import com.example.Student_Management_System.exception.ResourceNotFoundException;
+import com.example.Student_Management_System.repository.SecondLevelCache;
 import com.example.Student_Management_System.repository.StudentRepository;
 import com.example.Student_Management_System.repository.UserRepository;
+import com.example.Student_Management_System.security.UserAccountChangedEvent;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "app.service", histogram = true)
 @RequiredArgsConstructor
 @Transactional
 public class StudentService {
@@ -27,6 +33,9 @@ public class StudentService {
     private final StudentRepository studentRepository;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final StudentIdAllocator studentIdAllocator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SecondLevelCache secondLevelCache;
 
     public StudentResponseDTO createStudent(StudentRequestDTO requestDTO) {
         // Check if email already exists
@@ -35,7 +44,7 @@ public class StudentService {
         }
 
         // Generate student ID
-        String studentId = generateStudentId();
+        String studentId = studentIdAllocator.nextStudentId();
 
         // Create student entity (without password - this method is for backward compatibility)
         Student student = Student.builder()
@@ -65,7 +74,7 @@ public class StudentService {
         }
 
         // Generate student ID
-        String studentId = generateStudentId();
+        String studentId = studentIdAllocator.nextStudentId();
 
         // Hash password
         String hashedPassword = passwordEncoder.encode(requestDTO.getPassword());
@@ -103,11 +112,16 @@ public class StudentService {
         return convertToDTO(student);
     }
 
+    /**
+     * Returns the page of students with id greater than {@code after}, ordered by id.
+     * Rows are projected straight into DTOs so no entities are loaded.
+     */
     @Transactional(readOnly = true)
-    public List<StudentResponseDTO> getAllStudents() {
-        return studentRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public CursorPageResponseDTO<StudentResponseDTO> getStudents(Long after, int limit) {
+        int pageSize = CursorPageResponseDTO.clampLimit(limit);
+        List<StudentResponseDTO> rows = studentRepository.findPageAfter(
+                after != null ? after : 0L, Limit.of(pageSize + 1));
+        return CursorPageResponseDTO.of(rows, pageSize, StudentResponseDTO::getId);
     }
 
     public StudentResponseDTO updateStudent(Long id, StudentRequestDTO requestDTO) {
@@ -130,108 +144,53 @@ public class StudentService {
         // Save updated student
         Student updatedStudent = studentRepository.save(student);
 
+        // total_credits isn't written back, so the cached copy could hold a stale total
+        secondLevelCache.evict(Student.class, id);
+
         // Convert to DTO and return
         return convertToDTO(updatedStudent);
     }
 
-    public void deleteStudent(Long id) {
-        // Check if student exists
-        if (!studentRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Student", "id", id);
-        }
-
-        // Delete student
-        studentRepository.deleteById(id);
-    }
-
     /**
-     * Checks if the current authenticated user owns the student ID
-     * Used for @PreAuthorize SpEL expressions
+     * Marks the student and their login deleted; registrations and both rows are removed
+     * in the background by DeletionPurgeService
      */
-    @Transactional(readOnly = true)
-    public Boolean isOwnId(Long id) {
-        try {
-            org.springframework.security.core.Authentication authentication = 
-                org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication();
-            
-            if (authentication == null || !authentication.isAuthenticated()) {
-                return false;
-            }
-
-            String email = authentication.getName();
-            Student student = studentRepository.findById(id)
-                    .orElseThrow(() -> new ResourceNotFoundException("Student", "id", id));
-
-            return student.getEmail().equals(email);
-        } catch (Exception e) {
-            return false;
-        }
-    }
-
-    /**
-     * Checks if the current authenticated user owns the student ID (by string code)
-     * Used for @PreAuthorize SpEL expressions with string studentId
-     */
-    @Transactional(readOnly = true)
-    public Boolean isOwnStudentId(String studentId) {
-        try {
-            org.springframework.security.core.Authentication authentication = 
-                org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication();
-            
-            if (authentication == null || !authentication.isAuthenticated()) {
-                return false;
-            }
-
-            String email = authentication.getName();
-            Student student = studentRepository.findByStudentId(studentId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Student", "studentId", studentId));
-
-            return student.getEmail().equals(email);
-        } catch (Exception e) {
-            return false;
-        }
-    }
+    public void deleteStudent(Long id) {
+        // Check if student exists
+        Student student = studentRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Student", "id", id));
 
-    /**
-     * Generates the next student ID in format STU001, STU002, etc.
-     * @return the next student ID
-     */
-    private String generateStudentId() {
-        Optional<Student> lastStudent = studentRepository.findTopByOrderByStudentIdDesc();
-        
-        if (lastStudent.isEmpty()) {
-            // First student
-            return "STU001";
-        }
-        
-        String lastStudentId = lastStudent.get().getStudentId();
-        
-        // Extract the numeric part (assuming format STU###)
-        if (lastStudentId.startsWith("STU") && lastStudentId.length() >= 4) {
-            try {
-                String numberPart = lastStudentId.substring(3);
-                int nextNumber = Integer.parseInt(numberPart) + 1;
-                return String.format("STU%03d", nextNumber);
-            } catch (NumberFormatException e) {
-                // If parsing fails, start from STU001
-                return "STU001";
-            }
+        // Mark student deleted
+        LocalDateTime now = LocalDateTime.now();
+        student.setDeletedAt(now);
+        studentRepository.save(student);
+        eventPublisher.publishEvent(StudentEnrolmentChangedEvent.of(student.getStudentId()));
+
+        // Cache hits don't apply the deleted_at restriction
+        secondLevelCache.evict(Student.class, id);
+
+        // Mark the linked login deleted too, and drop its cached principal and tokens
+        if (student.getUserId() != null) {
+            userRepository.findById(student.getUserId()).ifPresent(user -> {
+                user.setDeletedAt(now);
+                userRepository.save(user);
+                secondLevelCache.evict(User.class, user.getId());
+                eventPublisher.publishEvent(new UserAccountChangedEvent(user.getEmail()));
+            });
         }
-        
-        // Default to STU001 if format is unexpected
-        return "STU001";
     }
 
     /**
      * Converts Student entity to StudentResponseDTO
      */
-    private StudentResponseDTO convertToDTO(Student student) {
+    static StudentResponseDTO convertToDTO(Student student) {
         return StudentResponseDTO.builder()
                 .id(student.getId())
                 .firstName(student.getFirstName())
                 .lastName(student.getLastName())
                 .email(student.getEmail())
                 .studentId(student.getStudentId())
+                .totalCredits(student.getTotalCredits())
                 .build();
     }
 }
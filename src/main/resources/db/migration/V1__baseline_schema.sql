@@ -0,0 +1,77 @@
+-- Schema as it stood when migrations took over from ddl-auto. Every statement is
+-- idempotent so this also runs cleanly against a database Hibernate already created:
+-- missing objects are added, existing ones are left alone.
+
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS students_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS courses_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS course_registrations_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS course_waitlist_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS users (
+    id         bigint       NOT NULL PRIMARY KEY,
+    email      varchar(100) NOT NULL,
+    password   varchar(255) NOT NULL,
+    role       varchar(20)  NOT NULL CHECK (role IN ('STUDENT', 'ADMIN')),
+    deleted_at timestamp(6),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE IF NOT EXISTS students (
+    id            bigint       NOT NULL PRIMARY KEY,
+    first_name    varchar(50)  NOT NULL,
+    last_name     varchar(50)  NOT NULL,
+    email         varchar(100) NOT NULL,
+    student_id    varchar(10)  NOT NULL,
+    user_id       bigint,
+    total_credits integer      NOT NULL DEFAULT 0,
+    deleted_at    timestamp(6),
+    CONSTRAINT uk_students_email UNIQUE (email),
+    CONSTRAINT uk_students_student_id UNIQUE (student_id)
+);
+
+CREATE TABLE IF NOT EXISTS courses (
+    id               bigint       NOT NULL PRIMARY KEY,
+    course_code      varchar(20)  NOT NULL,
+    course_name      varchar(100) NOT NULL,
+    description      varchar(500),
+    credits          integer      NOT NULL,
+    capacity         integer,
+    seats_available  integer,
+    waitlist_enabled boolean      NOT NULL DEFAULT false,
+    enrolled_count   integer      NOT NULL DEFAULT 0,
+    deleted_at       timestamp(6),
+    CONSTRAINT uk_courses_course_code UNIQUE (course_code)
+);
+
+CREATE TABLE IF NOT EXISTS course_registrations (
+    id                bigint       NOT NULL PRIMARY KEY,
+    student_id        bigint       NOT NULL REFERENCES students (id),
+    course_id         bigint       NOT NULL REFERENCES courses (id),
+    registration_date timestamp(6) NOT NULL,
+    CONSTRAINT uk_course_registrations_student_course UNIQUE (student_id, course_id)
+);
+
+CREATE TABLE IF NOT EXISTS course_waitlist (
+    id         bigint       NOT NULL PRIMARY KEY,
+    student_id bigint       NOT NULL REFERENCES students (id),
+    course_id  bigint       NOT NULL REFERENCES courses (id),
+    joined_at  timestamp(6) NOT NULL,
+    CONSTRAINT uk_course_waitlist_student_course UNIQUE (student_id, course_id)
+);
+
+-- Columns added after the tables first shipped, for databases that predate them
+ALTER TABLE users ADD COLUMN IF NOT EXISTS deleted_at timestamp(6);
+ALTER TABLE students ADD COLUMN IF NOT EXISTS total_credits integer NOT NULL DEFAULT 0;
+ALTER TABLE students ADD COLUMN IF NOT EXISTS deleted_at timestamp(6);
+ALTER TABLE courses ADD COLUMN IF NOT EXISTS capacity integer;
+ALTER TABLE courses ADD COLUMN IF NOT EXISTS seats_available integer;
+ALTER TABLE courses ADD COLUMN IF NOT EXISTS waitlist_enabled boolean NOT NULL DEFAULT false;
+ALTER TABLE courses ADD COLUMN IF NOT EXISTS enrolled_count integer NOT NULL DEFAULT 0;
+ALTER TABLE courses ADD COLUMN IF NOT EXISTS deleted_at timestamp(6);
+
+-- Rosters and per-course purges; the unique constraint leads with student_id
+CREATE INDEX IF NOT EXISTS idx_course_registrations_course_id ON course_registrations (course_id, student_id);
+
+-- Waitlist heads are taken in id order per course
+CREATE INDEX IF NOT EXISTS idx_course_waitlist_course_id ON course_waitlist (course_id, id);
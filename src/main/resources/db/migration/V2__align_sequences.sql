@@ -0,0 +1,37 @@
+-- Moves the pooled id sequences past rows inserted while the tables used IDENTITY columns.
+-- A pooled block ending at hi covers (hi - 50, hi], so hi must clear max(id). Sequences
+-- are only ever moved forward.
+SELECT setval('users_seq', t.max_id + 50, false)
+FROM (SELECT COALESCE(max(id), 0) AS max_id FROM users) t
+WHERE t.max_id + 50 > (SELECT last_value FROM users_seq);
+
+SELECT setval('students_seq', t.max_id + 50, false)
+FROM (SELECT COALESCE(max(id), 0) AS max_id FROM students) t
+WHERE t.max_id + 50 > (SELECT last_value FROM students_seq);
+
+SELECT setval('courses_seq', t.max_id + 50, false)
+FROM (SELECT COALESCE(max(id), 0) AS max_id FROM courses) t
+WHERE t.max_id + 50 > (SELECT last_value FROM courses_seq);
+
+SELECT setval('course_registrations_seq', t.max_id + 50, false)
+FROM (SELECT COALESCE(max(id), 0) AS max_id FROM course_registrations) t
+WHERE t.max_id + 50 > (SELECT last_value FROM course_registrations_seq);
+
+SELECT setval('course_waitlist_seq', t.max_id + 50, false)
+FROM (SELECT COALESCE(max(id), 0) AS max_id FROM course_waitlist) t
+WHERE t.max_id + 50 > (SELECT last_value FROM course_waitlist_seq);
+
+-- Student numbers are leased in blocks of student-id.block-size by StudentIdAllocator,
+-- starting after the highest number already issued
+DO $$
+DECLARE
+    highest bigint;
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_sequences WHERE sequencename = 'student_number_seq') THEN
+        SELECT COALESCE(max(CAST(substring(student_id FROM 4) AS bigint)), 0) INTO highest
+        FROM students WHERE student_id ~ '^STU[0-9]{1,7}$';
+        EXECUTE format('CREATE SEQUENCE student_number_seq START WITH %s INCREMENT BY %s',
+                       highest + 1, ${studentIdBlockSize});
+    END IF;
+END
+$$;
@@ -0,0 +1,14 @@
+-- Indexes for query paths the unique constraints don't cover
+
+-- Login loads the user with its student (students.user_id = users.id), and the purge
+-- looks for students still pointing at a user
+CREATE INDEX IF NOT EXISTS idx_students_user_id ON students (user_id);
+
+-- Duplicate-email checks compare case-insensitively
+CREATE INDEX IF NOT EXISTS idx_users_email_lower ON users (lower(email));
+CREATE INDEX IF NOT EXISTS idx_students_email_lower ON students (lower(email));
+
+-- DeletionPurgeService finds rows marked deleted; live rows stay out of these indexes
+CREATE INDEX IF NOT EXISTS idx_courses_deleted ON courses (id) WHERE deleted_at IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_students_deleted ON students (id) WHERE deleted_at IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_users_deleted ON users (id) WHERE deleted_at IS NOT NULL;
@@ -0,0 +1,315 @@
+package com.example.Student_Management_System.repository;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the Flyway migrations against a throwaway PostgreSQL, on an empty database and on
+ * one shaped like an old ddl-auto schema, and checks that the statements the repositories
+ * send are planned on the indexes the migrations define. JPA queries are captured as
+ * Hibernate generates them; JDBC repositories are checked through their SQL constants.
+ * Plans are taken with sequential scans disabled, so one only shows up where no index can
+ * serve the query.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(SchemaMigrationTest.CaptureConfig.class)
+class SchemaMigrationTest {
+
+    private static final StatementCapture CAPTURED = new StatementCapture();
+
+    // Started before the Spring context, which connects to it
+    private static final EmbeddedPostgres postgres = start();
+    private static final DataSource dataSource = postgres.getPostgresDatabase();
+    private static JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private CourseRegistrationRepository courseRegistrationRepository;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @BeforeAll
+    static void migrate() {
+        // A no-op if the context's Flyway got there first
+        flyway(dataSource).migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        // Enough rows for selective predicates to favour their index
+        jdbcTemplate.update("INSERT INTO users (id, email, password, role) " +
+                "SELECT g, 'user' || g || '@example.com', 'x', 'STUDENT' FROM generate_series(1, 2000) g");
+        jdbcTemplate.update("INSERT INTO students (id, first_name, last_name, email, student_id, user_id) " +
+                "SELECT g, 'First', 'Last', 'user' || g || '@example.com', 'STU' || lpad(g::text, 7, '0'), g " +
+                "FROM generate_series(1, 2000) g");
+        jdbcTemplate.update("INSERT INTO courses (id, course_code, course_name, credits) " +
+                "SELECT g, 'C' || g, 'Course ' || g, 3 FROM generate_series(1, 200) g");
+        jdbcTemplate.update("INSERT INTO course_registrations (id, student_id, course_id, registration_date) " +
+                "SELECT row_number() OVER (), s, (s + k * 17) % 200 + 1, now() " +
+                "FROM generate_series(1, 2000) s, generate_series(1, 10) k");
+        jdbcTemplate.update("INSERT INTO course_waitlist (id, student_id, course_id, joined_at) " +
+                "SELECT g, g, g % 200 + 1, now() FROM generate_series(1, 2000) g");
+        jdbcTemplate.update("UPDATE courses SET deleted_at = now() WHERE id % 50 = 0");
+        jdbcTemplate.update("UPDATE students SET deleted_at = now() WHERE id % 500 = 0");
+        jdbcTemplate.update("UPDATE users SET deleted_at = now() WHERE id % 500 = 0");
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        postgres.close();
+    }
+
+    @Test
+    void migratedSchemaIsCompleteAndUpToDate() {
+        assertThat(flyway(dataSource).migrate().migrationsExecuted).isZero();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT increment_by FROM pg_sequences WHERE sequencename = 'student_number_seq'", Long.class))
+                .isEqualTo(100L);
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT sequencename FROM pg_sequences WHERE increment_by = 50 ORDER BY sequencename", String.class))
+                .containsExactly("course_registrations_seq", "course_waitlist_seq", "courses_seq",
+                        "students_seq", "users_seq");
+    }
+
+    @Test
+    void migratesSchemaCreatedByHibernate() {
+        jdbcTemplate.execute("CREATE DATABASE legacy");
+        DataSource legacy = postgres.getDatabase("postgres", "legacy");
+        JdbcTemplate legacyJdbc = new JdbcTemplate(legacy);
+
+        // Tables as the first ddl-auto releases left them: IDENTITY ids and no later columns
+        legacyJdbc.execute("CREATE TABLE users (id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+                "email varchar(100) NOT NULL UNIQUE, password varchar(255) NOT NULL, role varchar(20) NOT NULL)");
+        legacyJdbc.execute("CREATE TABLE students (id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+                "first_name varchar(50) NOT NULL, last_name varchar(50) NOT NULL, email varchar(100) NOT NULL UNIQUE, " +
+                "student_id varchar(10) NOT NULL UNIQUE, user_id bigint)");
+        legacyJdbc.update("INSERT INTO users (id, email, password, role) VALUES (120, 'old@example.com', 'x', 'STUDENT')");
+        legacyJdbc.update("INSERT INTO students (id, first_name, last_name, email, student_id, user_id) " +
+                "VALUES (7, 'Old', 'Student', 'old@example.com', 'STU0000042', 120)");
+
+        flyway(legacy).migrate();
+
+        // Pooled blocks start past the existing ids, student numbers past the highest issued
+        assertThat(legacyJdbc.queryForObject("SELECT nextval('users_seq')", Long.class)).isEqualTo(170L);
+        assertThat(legacyJdbc.queryForObject("SELECT nextval('students_seq')", Long.class)).isEqualTo(57L);
+        assertThat(legacyJdbc.queryForObject("SELECT nextval('student_number_seq')", Long.class)).isEqualTo(43L);
+        assertThat(legacyJdbc.queryForObject(
+                "SELECT total_credits FROM students WHERE id = 7 AND deleted_at IS NULL", Integer.class)).isZero();
+    }
+
+    @Test
+    void loginJoinUsesStudentUserIdIndex() {
+        assertThat(plansOf(() -> userRepository.findLoginAccountByEmail("user5@example.com")))
+                .contains("uk_users_email", "idx_students_user_id");
+    }
+
+    @Test
+    void naturalIdLookupsUseUniqueConstraints() {
+        assertThat(plansOf(() -> courseRepository.findBySimpleNaturalId("C17"))).contains("uk_courses_course_code");
+        assertThat(plansOf(() -> studentRepository.findBySimpleNaturalId("STU0000005"))).contains("uk_students_student_id");
+    }
+
+    @Test
+    void duplicateEmailChecksUseCaseInsensitiveIndexes() {
+        assertThat(plansOf(() -> userRepository.existsByEmail("User5@example.com"))).contains("idx_users_email_lower");
+        assertThat(plansOf(() -> studentRepository.existsByEmail("User5@example.com"))).contains("idx_students_email_lower");
+    }
+
+    @Test
+    void rosterPageUsesCourseIdIndex() {
+        assertThat(plansOf(() -> courseRegistrationRepository.findRosterPageAfter("C17", 0L, Limit.of(51))))
+                .contains("idx_course_registrations_course_id");
+    }
+
+    // The waitlist head is a range of (course_id, id), not a walk of every course's waitlist
+    @Test
+    void promotionReadsWaitlistByCourseIdIndex() {
+        assertThat(plan(CourseRegistrationJdbcRepository.PROMOTE, 1L, 1L, LocalDateTime.now()))
+                .contains("idx_course_waitlist_course_id")
+                .doesNotContain("Join Filter: (w.course_id");
+    }
+
+    @Test
+    void unregisterReadsWaitlistByCourseIdIndex() {
+        assertThat(plan(CourseRegistrationJdbcRepository.UNREGISTER_BY_CODES, "STU0000005", "C17", LocalDateTime.now()))
+                .contains("idx_course_waitlist_course_id")
+                .doesNotContain("Join Filter: (w.course_id");
+        assertThat(plan(CourseRegistrationJdbcRepository.UNREGISTER_BY_IDS, 5L, 17L, LocalDateTime.now()))
+                .contains("idx_course_waitlist_course_id")
+                .doesNotContain("Join Filter: (w.course_id");
+    }
+
+    @Test
+    void purgeScansOnlyDeletedRows() {
+        assertThat(plan(DeletionPurgeJdbcRepository.PURGE_COURSES, 1000)).contains("idx_courses_deleted");
+        assertThat(plan(DeletionPurgeJdbcRepository.PURGE_STUDENTS, 1000)).contains("idx_students_deleted");
+        assertThat(plan(DeletionPurgeJdbcRepository.PURGE_USERS, 1000)).contains("idx_users_deleted");
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Flyway flyway(DataSource target) {
+        return Flyway.configure()
+                .dataSource(target)
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .placeholders(Map.of("studentIdBlockSize", "100"))
+                .load();
+    }
+
+    /**
+     * Runs a repository method and returns the plans of every statement it sent
+     */
+    private static String plansOf(Runnable repositoryCall) {
+        CAPTURED.clear();
+        repositoryCall.run();
+        List<CapturedStatement> statements = CAPTURED.drain();
+        assertThat(statements).isNotEmpty();
+        return statements.stream()
+                .map(captured -> explain(captured.sql(), statement -> {
+                    // Replays the exact setter calls the driver saw, types included
+                    for (ParameterSetOperation operation : captured.parameters()) {
+                        operation.getMethod().invoke(statement, operation.getArgs());
+                    }
+                }))
+                .collect(Collectors.joining("\n"));
+    }
+
+    private static String plan(String sql, Object... args) {
+        return explain(sql, statement -> {
+            for (int i = 0; i < args.length; i++) {
+                statement.setObject(i + 1, args[i]);
+            }
+        });
+    }
+
+    private static String explain(String sql, Binder binder) {
+        try (Connection connection = dataSource.getConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET enable_seqscan = off");
+            }
+            List<String> lines = new ArrayList<>();
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                binder.bind(statement);
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        lines.add(rs.getString(1));
+                    }
+                }
+            }
+            return String.join("\n", lines);
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not explain " + sql, e);
+        }
+    }
+
+    private interface Binder {
+        void bind(PreparedStatement statement) throws Exception;
+    }
+
+    private record CapturedStatement(String sql, List<ParameterSetOperation> parameters) {
+    }
+
+    /**
+     * Keeps the statements sent through the application's DataSource, with their parameters
+     */
+    private static final class StatementCapture implements QueryExecutionListener {
+
+        private final List<CapturedStatement> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            for (QueryInfo queryInfo : queryInfoList) {
+                List<ParameterSetOperation> parameters = queryInfo.getParametersList().isEmpty()
+                        ? List.of() : List.copyOf(queryInfo.getParametersList().get(0));
+                statements.add(new CapturedStatement(queryInfo.getQuery(), parameters));
+            }
+        }
+
+        void clear() {
+            statements.clear();
+        }
+
+        List<CapturedStatement> drain() {
+            List<CapturedStatement> drained = List.copyOf(statements);
+            statements.clear();
+            return drained;
+        }
+    }
+
+    @TestConfiguration
+    static class CaptureConfig {
+
+        @Bean
+        static BeanPostProcessor capturingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource target && !(bean instanceof ProxyDataSource)) {
+                        return ProxyDataSourceBuilder.create(beanName, target).listener(CAPTURED).build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.Student_Management_System.service;
+
+import com.example.Student_Management_System.dto.CourseRegistrationResponseDTO;
+import com.example.Student_Management_System.entity.Course;
+import com.example.Student_Management_System.entity.Student;
+import com.example.Student_Management_System.entity.User;
+import com.example.Student_Management_System.enums.RegistrationStatus;
+import com.example.Student_Management_System.enums.Role;
+import com.example.Student_Management_System.repository.CourseRepository;
+import com.example.Student_Management_System.repository.StudentBatchRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hundreds of threads registering for one popular course at the same moment: the seat
+ * counter must never let more students in than the capacity, everyone else must land on the
+ * waitlist, and unregistering must promote from the waitlist without losing seats.
+ *
+ * Runs on a throwaway embedded PostgreSQL, so it needs no database of its own and never
+ * uses up numbers from a real student_number_seq.
+ */
+@SpringBootTest(properties = {
+        "jwt.secret=concurrency-test-secret-concurrency-test-secret-0123456789",
+        "jwt.expiration=3600000",
+        "admin.username=admin",
+        "admin.email=admin@example.com",
+        "admin.password=admin-password"
+})
+@Slf4j
+class CourseRegistrationConcurrencyTest {
+
+    // Left running for the context's scheduled jobs; the embedded server stops with the JVM
+    private static final EmbeddedPostgres postgres = start();
+
+    private static final int CAPACITY = 50;
+    private static final int STUDENTS = 400;
+    private static final int THREADS = 200;
+    private static final int DROPS = 20;
+
+    @Autowired
+    private CourseRegistrationService courseRegistrationService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private StudentBatchRepository studentBatchRepository;
+
+    @Autowired
+    private StudentIdAllocator studentIdAllocator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Course course;
+    private List<User> users;
+    private List<Student> students;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @BeforeEach
+    void setUp() {
+        String suffix = Long.toString(System.nanoTime(), 36);
+        course = courseRepository.save(Course.builder()
+                .courseCode("RUSH" + suffix)
+                .courseName("Registration rush")
+                .credits(3)
+                .capacity(CAPACITY)
+                .seatsAvailable(CAPACITY)
+                .waitlistEnabled(true)
+                .build());
+
+        users = new ArrayList<>(STUDENTS);
+        students = new ArrayList<>(STUDENTS);
+        for (int i = 0; i < STUDENTS; i++) {
+            String email = "rush" + i + "." + suffix + "@example.com";
+            users.add(User.builder().email(email).password("unused").role(Role.STUDENT).build());
+            students.add(Student.builder()
+                    .firstName("Rush")
+                    .lastName("Student" + i)
+                    .email(email)
+                    .studentId(studentIdAllocator.nextStudentId())
+                    .build());
+        }
+        studentBatchRepository.insertUsersWithStudents(users, students);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM course_registrations WHERE course_id = ?", course.getId());
+        jdbcTemplate.update("DELETE FROM course_waitlist WHERE course_id = ?", course.getId());
+        jdbcTemplate.update("DELETE FROM courses WHERE id = ?", course.getId());
+        jdbcTemplate.batchUpdate("DELETE FROM students WHERE id = ?", students, 500,
+                (ps, student) -> ps.setLong(1, student.getId()));
+        jdbcTemplate.batchUpdate("DELETE FROM users WHERE id = ?", users, 500,
+                (ps, user) -> ps.setLong(1, user.getId()));
+    }
+
+    @Test
+    void popularCourseIsNeverOverbooked() throws Exception {
+        List<RegistrationStatus> outcomes = runConcurrently(students, student ->
+                courseRegistrationService.registerForCourse(student.getStudentId(), course.getCourseCode()),
+                "registrations");
+
+        assertThat(outcomes).filteredOn(status -> status == RegistrationStatus.REGISTERED).hasSize(CAPACITY);
+        assertThat(outcomes).filteredOn(status -> status == RegistrationStatus.WAITLISTED).hasSize(STUDENTS - CAPACITY);
+        assertThat(registrations()).isEqualTo(CAPACITY);
+        assertThat(waitlisted()).isEqualTo(STUDENTS - CAPACITY);
+        assertThat(seatsAvailable()).isZero();
+        assertCountersMatchRegistrations();
+
+        // Every dropped seat goes to the waitlist, so the course stays exactly full
+        List<String> registeredIds = jdbcTemplate.queryForList(
+                "SELECT s.student_id FROM course_registrations r JOIN students s ON s.id = r.student_id " +
+                "WHERE r.course_id = ? ORDER BY r.id LIMIT ?", String.class, course.getId(), DROPS);
+        runConcurrently(registeredIds, studentId -> {
+            courseRegistrationService.unregisterFromCourse(studentId, course.getCourseCode());
+            return null;
+        }, "unregistrations");
+
+        assertThat(registrations()).isEqualTo(CAPACITY);
+        assertThat(waitlisted()).isEqualTo(STUDENTS - CAPACITY - DROPS);
+        assertThat(seatsAvailable()).isZero();
+        assertCountersMatchRegistrations();
+    }
+
+    /**
+     * Runs one call per item on a pool of THREADS threads released at the same moment,
+     * logging the throughput and returning each call's registration status
+     */
+    private <T> List<RegistrationStatus> runConcurrently(List<T> items, Call<T> call, String label) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<CourseRegistrationResponseDTO>> futures = new ArrayList<>(items.size());
+        for (T item : items) {
+            Callable<CourseRegistrationResponseDTO> task = () -> {
+                start.await();
+                return call.apply(item);
+            };
+            futures.add(pool.submit(task));
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        List<RegistrationStatus> outcomes = new ArrayList<>(items.size());
+        for (Future<CourseRegistrationResponseDTO> future : futures) {
+            CourseRegistrationResponseDTO response = future.get(60, TimeUnit.SECONDS);
+            if (response != null) {
+                outcomes.add(response.getStatus());
+            }
+        }
+        long elapsedNanos = System.nanoTime() - begin;
+        pool.shutdown();
+
+        log.info("{} {} on {} threads in {} ms ({} per second)", items.size(), label, THREADS,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                String.format("%.0f", items.size() / (elapsedNanos / 1_000_000_000.0)));
+        return outcomes;
+    }
+
+    private long registrations() {
+        return jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM course_registrations WHERE course_id = ?", Long.class, course.getId());
+    }
+
+    private long waitlisted() {
+        return jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM course_waitlist WHERE course_id = ?", Long.class, course.getId());
+    }
+
+    private Integer seatsAvailable() {
+        return jdbcTemplate.queryForObject(
+                "SELECT seats_available FROM courses WHERE id = ?", Integer.class, course.getId());
+    }
+
+    private void assertCountersMatchRegistrations() {
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT enrolled_count FROM courses WHERE id = ?", Long.class, course.getId()))
+                .isEqualTo(registrations());
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM students s WHERE s.email LIKE ? AND s.total_credits <> " +
+                "3 * (SELECT count(*) FROM course_registrations r WHERE r.student_id = s.id)",
+                Long.class, "rush%" + course.getCourseCode().substring(4) + "@example.com"))
+                .isZero();
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Call<T> {
+        CourseRegistrationResponseDTO apply(T item) throws Exception;
+    }
+}